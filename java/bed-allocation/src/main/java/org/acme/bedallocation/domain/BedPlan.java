@@ -1,6 +1,8 @@
 package org.acme.bedallocation.domain;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
@@ -51,6 +53,7 @@ public class BedPlan {
                 .flatMap(d -> d.getRooms().stream())
                 .flatMap(r -> r.getBeds().stream())
                 .toList();
+        indexProblemFacts();
     }
 
     public BedPlan(HardMediumSoftScore score, SolverStatus solverStatus) {
@@ -67,6 +70,7 @@ public class BedPlan {
 
     public void setDepartments(List<Department> departments) {
         this.departments = departments;
+        indexProblemFacts();
     }
 
     public List<Room> getRooms() {
@@ -75,6 +79,7 @@ public class BedPlan {
 
     public void setRooms(List<Room> rooms) {
         this.rooms = rooms;
+        indexProblemFacts();
     }
 
     public List<Bed> getBeds() {
@@ -91,6 +96,7 @@ public class BedPlan {
 
     public void setStays(List<Stay> stays) {
         this.stays = stays;
+        indexProblemFacts();
     }
 
     public HardMediumSoftScore getScore() {
@@ -109,4 +115,87 @@ public class BedPlan {
         this.solverStatus = solverStatus;
     }
 
+    // ************************************************************************
+    // Complex methods
+    // ************************************************************************
+
+    /**
+     * Once all the problem facts and entities are known, number the equipments and the specialties of this solution,
+     * so the stays can compare equipment bit masks and look up their specialty priority in a table.
+     * The rooms and departments may be shared with other solutions, so they do not hold the index themselves.
+     */
+    private void indexProblemFacts() {
+        if (departments == null || rooms == null || stays == null) {
+            return;
+        }
+        Map<String, Integer> equipmentToIndex = new HashMap<>();
+        for (Room room : rooms) {
+            indexEach(equipmentToIndex, room.getEquipments());
+        }
+        for (Stay stay : stays) {
+            indexEach(equipmentToIndex, stay.getPatientRequiredEquipments());
+            indexEach(equipmentToIndex, stay.getPatientPreferredEquipments());
+        }
+        Map<Room, Long> roomToEquipmentMask = null;
+        // Too many equipments to fit in a mask, so the stays keep comparing the equipment lists
+        if (equipmentToIndex.size() <= Long.SIZE) {
+            roomToEquipmentMask = new HashMap<>(rooms.size());
+            for (Room room : rooms) {
+                roomToEquipmentMask.put(room, toMask(equipmentToIndex, room.getEquipments()));
+            }
+        }
+
+        Map<String, Integer> specialtyToIndex = new HashMap<>();
+        for (Department department : departments) {
+            if (department.getSpecialtyToPriority() != null) {
+                indexEach(specialtyToIndex, department.getSpecialtyToPriority().keySet());
+            }
+        }
+        for (Stay stay : stays) {
+            if (stay.getSpecialty() != null) {
+                specialtyToIndex.putIfAbsent(stay.getSpecialty(), specialtyToIndex.size());
+            }
+        }
+        // The priority of every specialty per department, null if the department does not have the specialty
+        Map<Department, Integer[]> departmentToSpecialtyPriorities = new HashMap<>(departments.size());
+        for (Department department : departments) {
+            Integer[] priorities = new Integer[specialtyToIndex.size()];
+            if (department.getSpecialtyToPriority() != null) {
+                department.getSpecialtyToPriority()
+                        .forEach((specialty, priority) -> priorities[specialtyToIndex.get(specialty)] = priority);
+            }
+            departmentToSpecialtyPriorities.put(department, priorities);
+        }
+
+        for (Stay stay : stays) {
+            if (roomToEquipmentMask == null) {
+                stay.indexEquipments(null, 0L, 0L);
+            } else {
+                stay.indexEquipments(roomToEquipmentMask,
+                        toMask(equipmentToIndex, stay.getPatientRequiredEquipments()),
+                        toMask(equipmentToIndex, stay.getPatientPreferredEquipments()));
+            }
+            stay.indexSpecialty(departmentToSpecialtyPriorities,
+                    stay.getSpecialty() == null ? -1 : specialtyToIndex.get(stay.getSpecialty()));
+        }
+    }
+
+    private static void indexEach(Map<String, Integer> valueToIndex, Iterable<String> values) {
+        if (values != null) {
+            for (String value : values) {
+                valueToIndex.putIfAbsent(value, valueToIndex.size());
+            }
+        }
+    }
+
+    private static long toMask(Map<String, Integer> equipmentToIndex, List<String> equipments) {
+        long mask = 0L;
+        if (equipments != null) {
+            for (String equipment : equipments) {
+                mask |= 1L << equipmentToIndex.get(equipment);
+            }
+        }
+        return mask;
+    }
+
 }
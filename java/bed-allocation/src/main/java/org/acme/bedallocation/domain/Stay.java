@@ -1,10 +1,9 @@
 package org.acme.bedallocation.domain;
 
-import static java.time.temporal.ChronoUnit.DAYS;
-
 import java.time.LocalDate;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
@@ -25,10 +24,24 @@ public class Stay {
     private List<String> patientPreferredEquipments;
     private LocalDate arrivalDate;
     private LocalDate departureDate;
+    // The nights of the stay in epoch days: from the arrival date until the day after the departure date (exclusive)
+    @JsonIgnore
+    private long arrivalEpochDay;
+    @JsonIgnore
+    private long endEpochDay;
     private String specialty;
     @PlanningVariable(allowsUnassigned = true)
     private Bed bed;
 
+    // Set by the solution, null if the stay does not belong to a solution yet.
+    // The masks are indexed by the equipment index of the solution.
+    private Map<Room, Long> roomToEquipmentMask;
+    private long requiredEquipmentMask;
+    private long preferredEquipmentMask;
+    // Indexed by the specialty index of the solution
+    private Map<Department, Integer[]> departmentToSpecialtyPriorities;
+    private int specialtyIndex;
+
     public Stay() {
     }
 
@@ -41,8 +54,8 @@ public class Stay {
 
     public Stay(String id, LocalDate arrivalDate, LocalDate departureDate, String specialty, Bed bed) {
         this.id = id;
-        this.arrivalDate = arrivalDate;
-        this.departureDate = departureDate;
+        setArrivalDate(arrivalDate);
+        setDepartureDate(departureDate);
         this.specialty = specialty;
         this.bed = bed;
         this.patientRequiredEquipments = new LinkedList<>();
@@ -51,23 +64,135 @@ public class Stay {
 
     @JsonIgnore
     public int getNightCount() {
-        return (int) DAYS.between(arrivalDate, departureDate) + 1; // TODO is + 1 still desired?
+        return (int) (endEpochDay - arrivalEpochDay);
     }
 
     public int calculateSameNightCount(Stay other) {
-        LocalDate maxArrivalDate = arrivalDate.compareTo(other.arrivalDate) < 0 ? other.arrivalDate : arrivalDate;
-        LocalDate minDepartureDate = departureDate.compareTo(other.departureDate) < 0 ? departureDate : other.departureDate;
-        return Math.max(0, (int) DAYS.between(maxArrivalDate, minDepartureDate) + 1); // TODO is + 1 still desired?
+        return Math.max(0, (int) (Math.min(endEpochDay, other.endEpochDay)
+                - Math.max(arrivalEpochDay, other.arrivalEpochDay)));
+    }
+
+    /**
+     * @return the epoch day of the first night
+     */
+    @JsonIgnore
+    public long getArrivalEpochDay() {
+        return arrivalEpochDay;
+    }
+
+    /**
+     * @return the epoch day after the last night, exclusive
+     */
+    @JsonIgnore
+    public long getEndEpochDay() {
+        return endEpochDay;
     }
 
     @JsonIgnore
     public boolean hasDepartmentSpecialty() {
-        return getDepartment().getSpecialtyToPriority().containsKey(specialty);
+        Integer[] specialtyPriorities = getDepartmentSpecialtyPriorities();
+        if (specialtyPriorities == null) {
+            return getDepartment().getSpecialtyToPriority().containsKey(specialty);
+        }
+        return specialtyPriorities[specialtyIndex] != null;
     }
 
+    /**
+     * @return 0 if the department does not have the specialty, see {@link #hasDepartmentSpecialty()}
+     */
     @JsonIgnore
     public int getSpecialtyPriority() {
-        return getDepartment().getSpecialtyToPriority().get(specialty);
+        Integer[] specialtyPriorities = getDepartmentSpecialtyPriorities();
+        if (specialtyPriorities == null) {
+            return getDepartment().getSpecialtyToPriority().getOrDefault(specialty, 0);
+        }
+        Integer priority = specialtyPriorities[specialtyIndex];
+        return priority == null ? 0 : priority;
+    }
+
+    private Integer[] getDepartmentSpecialtyPriorities() {
+        if (departmentToSpecialtyPriorities == null || specialtyIndex < 0) {
+            return null;
+        }
+        return departmentToSpecialtyPriorities.get(getDepartment());
+    }
+
+    /**
+     * @return true if the room does not have all the required equipments
+     */
+    @JsonIgnore
+    public boolean isMissingRequiredEquipment() {
+        Long roomMask = getRoomEquipmentMask();
+        if (roomMask == null) {
+            return !getRoom().getEquipments().containsAll(patientRequiredEquipments);
+        }
+        return (requiredEquipmentMask & ~roomMask) != 0L;
+    }
+
+    /**
+     * @return the number of required equipments that the room has
+     */
+    @JsonIgnore
+    public int getRoomRequiredEquipmentCount() {
+        Long roomMask = getRoomEquipmentMask();
+        if (roomMask == null) {
+            return countRoomEquipments(patientRequiredEquipments);
+        }
+        return Long.bitCount(requiredEquipmentMask & roomMask);
+    }
+
+    /**
+     * @return true if the room does not have all the preferred equipments
+     */
+    @JsonIgnore
+    public boolean isMissingPreferredEquipment() {
+        Long roomMask = getRoomEquipmentMask();
+        if (roomMask == null) {
+            return !getRoom().getEquipments().containsAll(patientPreferredEquipments);
+        }
+        return (preferredEquipmentMask & ~roomMask) != 0L;
+    }
+
+    /**
+     * @return the number of preferred equipments that the room has
+     */
+    @JsonIgnore
+    public int getRoomPreferredEquipmentCount() {
+        Long roomMask = getRoomEquipmentMask();
+        if (roomMask == null) {
+            return countRoomEquipments(patientPreferredEquipments);
+        }
+        return Long.bitCount(preferredEquipmentMask & roomMask);
+    }
+
+    private Long getRoomEquipmentMask() {
+        if (roomToEquipmentMask == null) {
+            return null;
+        }
+        return roomToEquipmentMask.get(getRoom());
+    }
+
+    private int countRoomEquipments(List<String> equipments) {
+        List<String> roomEquipments = getRoom().getEquipments();
+        int count = 0;
+        for (String equipment : equipments) {
+            if (roomEquipments.contains(equipment)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void indexEquipments(Map<Room, Long> roomToEquipmentMask, long requiredEquipmentMask,
+            long preferredEquipmentMask) {
+        this.roomToEquipmentMask = roomToEquipmentMask;
+        this.requiredEquipmentMask = requiredEquipmentMask;
+        this.preferredEquipmentMask = preferredEquipmentMask;
+    }
+
+    void indexSpecialty(Map<Department, Integer[]> departmentToSpecialtyPriorities, int specialtyIndex) {
+        this.departmentToSpecialtyPriorities = departmentToSpecialtyPriorities;
+        this.specialtyIndex = specialtyIndex;
     }
 
     @JsonIgnore
@@ -105,12 +230,14 @@ public class Stay {
     public void addRequiredEquipment(String equipment) {
         if (!patientRequiredEquipments.contains(equipment)) {
             this.patientRequiredEquipments.add(equipment);
+            this.roomToEquipmentMask = null;
         }
     }
 
     public void addPreferredEquipment(String equipment) {
         if (!patientPreferredEquipments.contains(equipment)) {
             this.patientPreferredEquipments.add(equipment);
+            this.roomToEquipmentMask = null;
         }
     }
 
@@ -165,6 +292,7 @@ public class Stay {
 
     public void setPatientRequiredEquipments(List<String> patientRequiredEquipments) {
         this.patientRequiredEquipments = patientRequiredEquipments;
+        this.roomToEquipmentMask = null;
     }
 
     public List<String> getPatientPreferredEquipments() {
@@ -173,6 +301,7 @@ public class Stay {
 
     public void setPatientPreferredEquipments(List<String> patientPreferredEquipments) {
         this.patientPreferredEquipments = patientPreferredEquipments;
+        this.roomToEquipmentMask = null;
     }
 
     public LocalDate getArrivalDate() {
@@ -181,6 +310,7 @@ public class Stay {
 
     public void setArrivalDate(LocalDate arrivalDate) {
         this.arrivalDate = arrivalDate;
+        this.arrivalEpochDay = arrivalDate == null ? 0L : arrivalDate.toEpochDay();
     }
 
     public LocalDate getDepartureDate() {
@@ -189,6 +319,7 @@ public class Stay {
 
     public void setDepartureDate(LocalDate departureDate) {
         this.departureDate = departureDate;
+        this.endEpochDay = departureDate == null ? 0L : departureDate.toEpochDay() + 1; // TODO is + 1 still desired?
     }
 
     public String getSpecialty() {
@@ -197,6 +328,7 @@ public class Stay {
 
     public void setSpecialty(String specialty) {
         this.specialty = specialty;
+        this.departmentToSpecialtyPriorities = null;
     }
 
     public Bed getBed() {
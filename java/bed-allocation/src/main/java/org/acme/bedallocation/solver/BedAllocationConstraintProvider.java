@@ -4,6 +4,7 @@ import static ai.timefold.solver.core.api.score.stream.Joiners.equal;
 import static ai.timefold.solver.core.api.score.stream.Joiners.filtering;
 import static ai.timefold.solver.core.api.score.stream.Joiners.greaterThan;
 import static ai.timefold.solver.core.api.score.stream.Joiners.lessThan;
+import static ai.timefold.solver.core.api.score.stream.Joiners.overlapping;
 
 import java.util.function.Function;
 
@@ -42,8 +43,8 @@ public class BedAllocationConstraintProvider implements ConstraintProvider {
 
     public Constraint sameBedInSameNight(ConstraintFactory constraintFactory) {
         return constraintFactory.forEachUniquePair(Stay.class,
-                equal(Stay::getBed))
-                .filter((left, right) -> left.calculateSameNightCount(right) > 0)
+                equal(Stay::getBed),
+                overlapping(Stay::getArrivalEpochDay, Stay::getEndEpochDay))
                 .penalize(HardMediumSoftScore.ofHard(1000),
                         Stay::calculateSameNightCount)
                 .asConstraint("sameBedInSameNight");
@@ -72,8 +73,8 @@ public class BedAllocationConstraintProvider implements ConstraintProvider {
                         .filter(st -> st.getRoomGenderLimitation() == GenderLimitation.SAME_GENDER),
                         equal(Stay::getRoom),
                         lessThan(Stay::getId),
-                        filtering((left, right) -> left.getPatientGender() != right.getPatientGender()
-                                && left.calculateSameNightCount(right) > 0))
+                        overlapping(Stay::getArrivalEpochDay, Stay::getEndEpochDay),
+                        filtering((left, right) -> left.getPatientGender() != right.getPatientGender()))
                 .penalize(HardMediumSoftScore.ofHard(1000),
                         Stay::calculateSameNightCount)
                 .asConstraint("differentGenderInSameGenderRoomInSameNight");
@@ -103,10 +104,9 @@ public class BedAllocationConstraintProvider implements ConstraintProvider {
 
     public Constraint requiredPatientEquipment(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Stay.class)
-                .filter(st -> !st.getRoom().getEquipments().containsAll(st.getPatientRequiredEquipments()))
+                .filter(Stay::isMissingRequiredEquipment)
                 .penalize(HardMediumSoftScore.ofHard(50),
-                        st -> st.getNightCount() * (int) st.getPatientRequiredEquipments().stream()
-                                .filter(equipment -> st.getRoom().getEquipments().contains(equipment)).count())
+                        st -> st.getNightCount() * st.getRoomRequiredEquipmentCount())
                 .asConstraint("requiredPatientEquipment");
     }
 
@@ -143,11 +143,9 @@ public class BedAllocationConstraintProvider implements ConstraintProvider {
 
     public Constraint preferredPatientEquipment(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Stay.class)
-                .filter(bedDesignation -> !bedDesignation.getRoom().getEquipments().containsAll(
-                        bedDesignation.getPatientPreferredEquipments()))
+                .filter(Stay::isMissingPreferredEquipment)
                 .penalize(HardMediumSoftScore.ofHard(50),
-                        st -> st.getNightCount() * (int) st.getPatientPreferredEquipments().stream()
-                                .filter(equipment -> st.getRoom().getEquipments().contains(equipment)).count())
+                        st -> st.getNightCount() * st.getRoomPreferredEquipmentCount())
                 .asConstraint("preferredPatientEquipment");
     }
 }
@@ -76,6 +76,22 @@ class BedAllocationConstraintProviderTest {
                 .penalizesBy(6);
     }
 
+    @Test
+    void sameBedInSameNightPartialOverlap() {
+        Bed bed = new Bed("1");
+
+        Stay stay = new Stay("0", ZERO_NIGHT, FIVE_NIGHT, DEFAULT_SPECIALTY, bed);
+        // Shares the nights 3, 4 and 5 with the first stay
+        Stay overlappingStay = new Stay("1", ZERO_NIGHT.plusDays(3), ZERO_NIGHT.plusDays(7), DEFAULT_SPECIALTY, bed);
+        // Shares the night 5 with both other stays
+        Stay oneNightStay = new Stay("2", FIVE_NIGHT, FIVE_NIGHT, DEFAULT_SPECIALTY, bed);
+        Stay laterStay = new Stay("3", ZERO_NIGHT.plusDays(8), ZERO_NIGHT.plusDays(10), DEFAULT_SPECIALTY, bed);
+
+        constraintVerifier.verifyThat(BedAllocationConstraintProvider::sameBedInSameNight)
+                .given(stay, overlappingStay, oneNightStay, laterStay)
+                .penalizesBy(5);
+    }
+
     @Test
     void departmentMinimumAge() {
         Department department = new Department("1", "Adult department");
@@ -156,6 +172,36 @@ class BedAllocationConstraintProviderTest {
                 .penalizesBy(6);
     }
 
+    @Test
+    void differentGenderInSameGenderRoomInSameNightIgnoresSameGender() {
+        Room room = new Room("1");
+        room.setGenderLimitation(GenderLimitation.SAME_GENDER);
+
+        Bed bed1 = new Bed("1");
+        bed1.setRoom(room);
+        Bed bed2 = new Bed("2");
+        bed2.setRoom(room);
+        Bed bed3 = new Bed("3");
+        bed3.setRoom(room);
+
+        Stay stayFemale = new Stay("0", ZERO_NIGHT, FIVE_NIGHT, DEFAULT_SPECIALTY, bed1);
+        stayFemale.setPatientGender(Gender.FEMALE);
+        Stay otherStayFemale = new Stay("1", ZERO_NIGHT, FIVE_NIGHT, DEFAULT_SPECIALTY, bed2);
+        otherStayFemale.setPatientGender(Gender.FEMALE);
+        // Shares the nights 3, 4 and 5 with both female stays
+        Stay stayMale = new Stay("2", ZERO_NIGHT.plusDays(3), ZERO_NIGHT.plusDays(7), DEFAULT_SPECIALTY, bed3);
+        stayMale.setPatientGender(Gender.MALE);
+
+        constraintVerifier
+                .verifyThat(BedAllocationConstraintProvider::differentGenderInSameGenderRoomInSameNight)
+                .given(stayFemale, otherStayFemale, stayMale)
+                .penalizesBy(6);
+        constraintVerifier
+                .verifyThat(BedAllocationConstraintProvider::differentGenderInSameGenderRoomInSameNight)
+                .given(stayFemale, otherStayFemale)
+                .penalizes(0);
+    }
+
     @Test
     void assignEveryPatientToABed() {
 
@@ -255,4 +301,72 @@ class BedAllocationConstraintProviderTest {
                 .penalizesBy(6);
     }
 
+    @Test
+    void departmentSpecialtyNotFirstPriorityWithoutDepartmentSpecialty() {
+        Department department = new Department("0", "0");
+        department.setSpecialtyToPriority(Map.of("spec1", 2));
+
+        Room roomInDep = new Room("1");
+        roomInDep.setDepartment(department);
+
+        Bed bedInDep = new Bed();
+        bedInDep.setRoom(roomInDep);
+
+        // Penalized by departmentSpecialty instead
+        Stay stay = new Stay("0", ZERO_NIGHT, FIVE_NIGHT, "spec2", bedInDep);
+
+        constraintVerifier.verifyThat(BedAllocationConstraintProvider::departmentSpecialtyNotFirstPriority)
+                .given(stay)
+                .penalizesBy(0);
+    }
+
+    @Test
+    void patientEquipmentInSolution() {
+        Department department = new Department("0", "0");
+        Room room = new Room("1", "1", department);
+        room.setEquipments(List.of("TELEMETRY", "OXYGEN"));
+        Bed bed = new Bed("1", room, 0);
+        room.addBed(bed);
+
+        Stay stay1 = new Stay("0", ZERO_NIGHT, FIVE_NIGHT, DEFAULT_SPECIALTY, bed);
+        stay1.setPatientRequiredEquipments(List.of("TELEVISION", "TELEMETRY"));
+        stay1.setPatientPreferredEquipments(List.of("OXYGEN", "TELEMETRY"));
+        Stay stay2 = new Stay("1", ZERO_NIGHT, FIVE_NIGHT, DEFAULT_SPECIALTY, bed);
+        stay2.setPatientRequiredEquipments(List.of("OXYGEN"));
+        stay2.setPatientPreferredEquipments(List.of("NITROGEN", "TELEVISION", "OXYGEN"));
+
+        // The solution compares the equipments with bit masks
+        BedPlan solution = new BedPlan(List.of(department), List.of(stay1, stay2));
+
+        constraintVerifier.verifyThat(BedAllocationConstraintProvider::requiredPatientEquipment)
+                .givenSolution(solution)
+                .penalizesBy(6);
+        constraintVerifier.verifyThat(BedAllocationConstraintProvider::preferredPatientEquipment)
+                .givenSolution(solution)
+                .penalizesBy(6);
+    }
+
+    @Test
+    void departmentSpecialtyInSolution() {
+        Department department = new Department("0", "0");
+        department.setSpecialtyToPriority(Map.of("spec1", 1, "spec2", 3));
+        Room room = new Room("1", "1", department);
+        Bed bed = new Bed("1", room, 0);
+        room.addBed(bed);
+
+        Stay stay1 = new Stay("0", ZERO_NIGHT, FIVE_NIGHT, "spec1", bed);
+        Stay stay2 = new Stay("1", ZERO_NIGHT, FIVE_NIGHT, "spec2", bed);
+        Stay stay3 = new Stay("2", ZERO_NIGHT, FIVE_NIGHT, "spec3", bed);
+
+        // The solution looks up the specialty priorities in a table
+        BedPlan solution = new BedPlan(List.of(department), List.of(stay1, stay2, stay3));
+
+        constraintVerifier.verifyThat(BedAllocationConstraintProvider::departmentSpecialty)
+                .givenSolution(solution)
+                .penalizesBy(6);
+        constraintVerifier.verifyThat(BedAllocationConstraintProvider::departmentSpecialtyNotFirstPriority)
+                .givenSolution(solution)
+                .penalizesBy(12);
+    }
+
 }
@@ -0,0 +1,56 @@
+package org.acme.employeescheduling.domain;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Immutable set of days as a bit mask, offset by the first day of the set.
+ * Checking whether a day is in the set is a single bit test, without hashing or allocating a {@link LocalDate}.
+ */
+public final class DayMask {
+
+    public static final DayMask EMPTY = new DayMask(0L, new long[0]);
+
+    private final long firstEpochDay;
+    private final long[] words;
+
+    /**
+     * @param dates null if there are no dates
+     * @return never null
+     */
+    public static DayMask of(Collection<LocalDate> dates) {
+        if (dates == null || dates.isEmpty()) {
+            return EMPTY;
+        }
+        long firstEpochDay = Long.MAX_VALUE;
+        long lastEpochDay = Long.MIN_VALUE;
+        for (LocalDate date : dates) {
+            firstEpochDay = Math.min(firstEpochDay, date.toEpochDay());
+            lastEpochDay = Math.max(lastEpochDay, date.toEpochDay());
+        }
+        long[] words = new long[Math.toIntExact(((lastEpochDay - firstEpochDay) >>> 6) + 1)];
+        for (LocalDate date : dates) {
+            long offset = date.toEpochDay() - firstEpochDay;
+            words[(int) (offset >>> 6)] |= 1L << offset;
+        }
+        return new DayMask(firstEpochDay, words);
+    }
+
+    private DayMask(long firstEpochDay, long[] words) {
+        this.firstEpochDay = firstEpochDay;
+        this.words = words;
+    }
+
+    /**
+     * @param epochDay see {@link LocalDate#toEpochDay()}
+     * @return true if the day is in the set
+     */
+    public boolean contains(long epochDay) {
+        long offset = epochDay - firstEpochDay;
+        if (offset < 0L || (offset >>> 6) >= words.length) {
+            return false;
+        }
+        return (words[(int) (offset >>> 6)] & (1L << offset)) != 0L;
+    }
+
+}
@@ -6,6 +6,8 @@ import java.util.Set;
 
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class Employee {
     @PlanningId
     private String name;
@@ -15,6 +17,15 @@ public class Employee {
     private Set<LocalDate> undesiredDates;
     private Set<LocalDate> desiredDates;
 
+    // Set by the schedule, null if the employee does not belong to a schedule yet.
+    private SkillIndex skillIndex;
+    // Built lazily from the sets above, because the demo data adds dates after creating the employee.
+    // Every setter resets its mask.
+    private volatile long[] skillMask;
+    private volatile DayMask unavailableDayMask;
+    private volatile DayMask undesiredDayMask;
+    private volatile DayMask desiredDayMask;
+
     public Employee() {
 
     }
@@ -28,6 +39,60 @@ public class Employee {
         this.desiredDates = desiredDates;
     }
 
+    /**
+     * @param skill never null
+     * @param skillIndex the index of the skill in the {@link SkillIndex} of this employee's schedule,
+     *        -1 if the skill is not indexed
+     * @return true if the employee has the skill
+     */
+    public boolean hasSkill(String skill, int skillIndex) {
+        SkillIndex index = this.skillIndex;
+        if (index == null || skillIndex < 0) {
+            return skills.contains(skill);
+        }
+        long[] mask = skillMask;
+        if (mask == null) {
+            mask = index.toMask(skills);
+            skillMask = mask;
+        }
+        return SkillIndex.contains(mask, skillIndex);
+    }
+
+    void setSkillIndex(SkillIndex skillIndex) {
+        this.skillIndex = skillIndex;
+        this.skillMask = null;
+    }
+
+    @JsonIgnore
+    public DayMask getUnavailableDayMask() {
+        DayMask mask = unavailableDayMask;
+        if (mask == null) {
+            mask = DayMask.of(unavailableDates);
+            unavailableDayMask = mask;
+        }
+        return mask;
+    }
+
+    @JsonIgnore
+    public DayMask getUndesiredDayMask() {
+        DayMask mask = undesiredDayMask;
+        if (mask == null) {
+            mask = DayMask.of(undesiredDates);
+            undesiredDayMask = mask;
+        }
+        return mask;
+    }
+
+    @JsonIgnore
+    public DayMask getDesiredDayMask() {
+        DayMask mask = desiredDayMask;
+        if (mask == null) {
+            mask = DayMask.of(desiredDates);
+            desiredDayMask = mask;
+        }
+        return mask;
+    }
+
     public String getName() {
         return name;
     }
@@ -42,6 +107,7 @@ public class Employee {
 
     public void setSkills(Set<String> skills) {
         this.skills = skills;
+        this.skillMask = null;
     }
 
     public Set<LocalDate> getUnavailableDates() {
@@ -50,6 +116,7 @@ public class Employee {
 
     public void setUnavailableDates(Set<LocalDate> unavailableDates) {
         this.unavailableDates = unavailableDates;
+        this.unavailableDayMask = null;
     }
 
     public Set<LocalDate> getUndesiredDates() {
@@ -58,6 +125,7 @@ public class Employee {
 
     public void setUndesiredDates(Set<LocalDate> undesiredDates) {
         this.undesiredDates = undesiredDates;
+        this.undesiredDayMask = null;
     }
 
     public Set<LocalDate> getDesiredDates() {
@@ -66,6 +134,7 @@ public class Employee {
 
     public void setDesiredDates(Set<LocalDate> desiredDates) {
         this.desiredDates = desiredDates;
+        this.desiredDayMask = null;
     }
 
     @Override
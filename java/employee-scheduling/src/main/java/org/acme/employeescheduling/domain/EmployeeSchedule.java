@@ -31,6 +31,7 @@ public class EmployeeSchedule {
     public EmployeeSchedule(List<Employee> employees, List<Shift> shifts) {
         this.employees = employees;
         this.shifts = shifts;
+        indexSkills();
     }
 
     public EmployeeSchedule(HardSoftBigDecimalScore score, SolverStatus solverStatus) {
@@ -44,6 +45,7 @@ public class EmployeeSchedule {
 
     public void setEmployees(List<Employee> employees) {
         this.employees = employees;
+        indexSkills();
     }
 
     public List<Shift> getShifts() {
@@ -52,6 +54,17 @@ public class EmployeeSchedule {
 
     public void setShifts(List<Shift> shifts) {
         this.shifts = shifts;
+        indexSkills();
+    }
+
+    // Once both the employees and the shifts are known, number their skills for the bit masks.
+    private void indexSkills() {
+        if (employees == null || shifts == null) {
+            return;
+        }
+        SkillIndex skillIndex = SkillIndex.of(employees, shifts);
+        employees.forEach(employee -> employee.setSkillIndex(skillIndex));
+        shifts.forEach(shift -> shift.setSkillIndex(skillIndex));
     }
 
     public HardSoftBigDecimalScore getScore() {
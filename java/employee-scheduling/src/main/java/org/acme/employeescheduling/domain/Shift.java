@@ -10,6 +10,8 @@ import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @PlanningEntity
 public class Shift {
     @PlanningId
@@ -21,6 +23,13 @@ public class Shift {
     private String location;
     private String requiredSkill;
 
+    // Derived from the fields above, to avoid hashing and allocating in the constraints.
+    private long startEpochDay;
+    private long endEpochDay;
+    // Set by the schedule, null if the shift does not belong to a schedule yet.
+    private SkillIndex skillIndex;
+    private int requiredSkillIndex = -1;
+
     @PlanningVariable
     private Employee employee;
 
@@ -37,11 +46,11 @@ public class Shift {
 
     public Shift(String id, LocalDateTime start, LocalDateTime end, String location, String requiredSkill, Employee employee) {
         this.id = id;
-        this.start = start;
-        this.end = end;
         this.location = location;
-        this.requiredSkill = requiredSkill;
         this.employee = employee;
+        setStart(start);
+        setEnd(end);
+        setRequiredSkill(requiredSkill);
     }
 
     public String getId() {
@@ -58,6 +67,7 @@ public class Shift {
 
     public void setStart(LocalDateTime start) {
         this.start = start;
+        this.startEpochDay = start == null ? 0L : start.toLocalDate().toEpochDay();
     }
 
     public LocalDateTime getEnd() {
@@ -66,6 +76,7 @@ public class Shift {
 
     public void setEnd(LocalDateTime end) {
         this.end = end;
+        this.endEpochDay = end == null ? 0L : end.toLocalDate().toEpochDay();
     }
 
     public String getLocation() {
@@ -82,6 +93,20 @@ public class Shift {
 
     public void setRequiredSkill(String requiredSkill) {
         this.requiredSkill = requiredSkill;
+        this.requiredSkillIndex = skillIndex == null ? -1 : skillIndex.indexOf(requiredSkill);
+    }
+
+    void setSkillIndex(SkillIndex skillIndex) {
+        this.skillIndex = skillIndex;
+        this.requiredSkillIndex = skillIndex.indexOf(requiredSkill);
+    }
+
+    /**
+     * @return see {@link SkillIndex#indexOf(String)}, -1 if the shift does not belong to a schedule yet
+     */
+    @JsonIgnore
+    public int getRequiredSkillIndex() {
+        return requiredSkillIndex;
     }
 
     public Employee getEmployee() {
@@ -96,6 +121,25 @@ public class Shift {
         return getStart().toLocalDate().equals(date) || getEnd().toLocalDate().equals(date);
     }
 
+    public boolean isOverlappingWithDays(DayMask days) {
+        return days.contains(startEpochDay) || days.contains(endEpochDay);
+    }
+
+    /**
+     * @param days never null
+     * @return the sum of {@link #getOverlappingDurationInMinutes(LocalDate)} for every day of the shift in the mask
+     */
+    public int getOverlappingDurationInMinutes(DayMask days) {
+        int minutes = 0;
+        if (days.contains(startEpochDay)) {
+            minutes += getOverlappingDurationInMinutes(LocalDate.ofEpochDay(startEpochDay));
+        }
+        if (endEpochDay != startEpochDay && days.contains(endEpochDay)) {
+            minutes += getOverlappingDurationInMinutes(LocalDate.ofEpochDay(endEpochDay));
+        }
+        return minutes;
+    }
+
     public int getOverlappingDurationInMinutes(LocalDate date) {
         LocalDateTime startDateTime = LocalDateTime.of(date, LocalTime.MIN);
         LocalDateTime endDateTime = LocalDateTime.of(date, LocalTime.MAX);
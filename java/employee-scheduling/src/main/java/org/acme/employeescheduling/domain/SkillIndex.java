@@ -0,0 +1,80 @@
+package org.acme.employeescheduling.domain;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numbers the skills of a single {@link EmployeeSchedule} densely, so the skills of an employee fit in a bit mask.
+ * <p>
+ * The index is built by the schedule from the skills of its employees and shifts,
+ * so it only grows with the size of that schedule and is discarded together with it.
+ */
+public final class SkillIndex {
+
+    private final Map<String, Integer> skillToIndex;
+
+    /**
+     * @param employees never null
+     * @param shifts never null
+     * @return never null
+     */
+    public static SkillIndex of(List<Employee> employees, List<Shift> shifts) {
+        Map<String, Integer> skillToIndex = new HashMap<>();
+        for (Employee employee : employees) {
+            if (employee.getSkills() != null) {
+                employee.getSkills().forEach(skill -> skillToIndex.putIfAbsent(skill, skillToIndex.size()));
+            }
+        }
+        for (Shift shift : shifts) {
+            if (shift.getRequiredSkill() != null) {
+                skillToIndex.putIfAbsent(shift.getRequiredSkill(), skillToIndex.size());
+            }
+        }
+        return new SkillIndex(skillToIndex);
+    }
+
+    private SkillIndex(Map<String, Integer> skillToIndex) {
+        this.skillToIndex = skillToIndex;
+    }
+
+    /**
+     * @param skill null if there is no skill
+     * @return the index of the skill, or -1 if the skill is null or not in this index
+     */
+    public int indexOf(String skill) {
+        if (skill == null) {
+            return -1;
+        }
+        Integer index = skillToIndex.get(skill);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param skills null if there are no skills
+     * @return never null, the bit {@link #indexOf(String)} is set for every skill in this index
+     */
+    public long[] toMask(Iterable<String> skills) {
+        long[] mask = new long[(skillToIndex.size() + 63) >>> 6];
+        if (skills == null) {
+            return mask;
+        }
+        for (String skill : skills) {
+            int index = indexOf(skill);
+            if (index >= 0) {
+                mask[index >>> 6] |= 1L << index;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask never null, see {@link #toMask(Iterable)}
+     * @param index the index of the skill in the same index as the mask
+     * @return true if the bit of the skill is set
+     */
+    public static boolean contains(long[] mask, int index) {
+        int word = index >>> 6;
+        return word < mask.length && (mask[word] & (1L << index)) != 0L;
+    }
+}
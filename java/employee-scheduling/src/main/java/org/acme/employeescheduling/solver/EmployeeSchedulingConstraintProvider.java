@@ -1,25 +1,40 @@
 package org.acme.employeescheduling.solver;
 
 import static ai.timefold.solver.core.api.score.stream.Joiners.equal;
-import static ai.timefold.solver.core.api.score.stream.Joiners.lessThanOrEqual;
-import static ai.timefold.solver.core.api.score.stream.Joiners.overlapping;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.function.Function;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 import ai.timefold.solver.core.api.score.buildin.hardsoftbigdecimal.HardSoftBigDecimalScore;
 import ai.timefold.solver.core.api.score.stream.Constraint;
 import ai.timefold.solver.core.api.score.stream.ConstraintCollectors;
 import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
 import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
+import ai.timefold.solver.core.api.score.stream.common.ConnectedRange;
+import ai.timefold.solver.core.api.score.stream.common.ConnectedRangeChain;
 import ai.timefold.solver.core.api.score.stream.common.LoadBalance;
+import ai.timefold.solver.core.api.score.stream.common.RangeGap;
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintCollector;
 
 import org.acme.employeescheduling.domain.Employee;
 import org.acme.employeescheduling.domain.Shift;
 
 public class EmployeeSchedulingConstraintProvider implements ConstraintProvider {
 
+    /**
+     * Timeline of the shifts of an employee, in half minutes since the epoch.
+     * Shifts that touch would be joined into one connected range, hiding the zero minute break between them,
+     * so every shift starts half a minute late.
+     * That keeps touching shifts apart without making any other shifts overlap.
+     */
+    private static final UniConstraintCollector<Shift, ?, ConnectedRangeChain<Shift, Long, Long>> SHIFT_TIMELINE =
+            ConstraintCollectors.toConnectedRanges(shift -> toEpochHalfMinute(shift.getStart()) + 1,
+                    shift -> toEpochHalfMinute(shift.getEnd()));
+
     private static int getMinuteOverlap(Shift shift1, Shift shift2) {
         // The overlap of two timeslot occurs in the range common to both timeslots.
         // Both timeslots are active after the higher of their two start times,
@@ -32,6 +47,30 @@ public class EmployeeSchedulingConstraintProvider implements ConstraintProvider
                 (shift1End.isBefore(shift2End)) ? shift1End : shift2End).toMinutes();
     }
 
+    private static int getMinuteOverlap(ConnectedRange<Shift, Long, Long> connectedShifts) {
+        // Sum the overlap of every pair of shifts, like a join on overlapping shifts would.
+        // Sorted by start, a shift can only overlap the shifts that start before it ends.
+        List<Shift> shifts = new ArrayList<>(connectedShifts.getContainedRangeCount());
+        connectedShifts.forEach(shifts::add);
+        shifts.sort(Comparator.comparing(Shift::getStart));
+        int minuteOverlap = 0;
+        for (int i = 0; i < shifts.size(); i++) {
+            Shift shift = shifts.get(i);
+            for (int j = i + 1; j < shifts.size() && shifts.get(j).getStart().isBefore(shift.getEnd()); j++) {
+                minuteOverlap += getMinuteOverlap(shift, shifts.get(j));
+            }
+        }
+        return minuteOverlap;
+    }
+
+    private static int getMinuteBreak(RangeGap<Long, Long> gap) {
+        return (int) (gap.getLength() / 2);
+    }
+
+    private static long toEpochHalfMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 30;
+    }
+
     @Override
     public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
         return new Constraint[] {
@@ -50,29 +89,30 @@ public class EmployeeSchedulingConstraintProvider implements ConstraintProvider
 
     Constraint requiredSkill(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .filter(shift -> !shift.getEmployee().getSkills().contains(shift.getRequiredSkill()))
+                .filter(shift -> !shift.getEmployee().hasSkill(shift.getRequiredSkill(), shift.getRequiredSkillIndex()))
                 .penalize(HardSoftBigDecimalScore.ONE_HARD)
                 .asConstraint("Missing required skill");
     }
 
+    // The shifts of each employee are kept in a timeline sorted by start,
+    // so a shift is only ever compared with its neighbors instead of with all the other shifts of the employee.
     Constraint noOverlappingShifts(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEachUniquePair(Shift.class, equal(Shift::getEmployee),
-                overlapping(Shift::getStart, Shift::getEnd))
+        return constraintFactory.forEach(Shift.class)
+                .groupBy(Shift::getEmployee, SHIFT_TIMELINE)
+                .flattenLast(ConnectedRangeChain::getConnectedRanges)
+                .filter((employee, connectedShifts) -> connectedShifts.hasOverlap())
                 .penalize(HardSoftBigDecimalScore.ONE_HARD,
-                        EmployeeSchedulingConstraintProvider::getMinuteOverlap)
+                        (employee, connectedShifts) -> getMinuteOverlap(connectedShifts))
                 .asConstraint("Overlapping shift");
     }
 
     Constraint atLeast10HoursBetweenTwoShifts(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .join(Shift.class, equal(Shift::getEmployee), lessThanOrEqual(Shift::getEnd, Shift::getStart))
-                .filter((firstShift,
-                        secondShift) -> Duration.between(firstShift.getEnd(), secondShift.getStart()).toHours() < 10)
+                .groupBy(Shift::getEmployee, SHIFT_TIMELINE)
+                .flattenLast(ConnectedRangeChain::getGaps)
+                .filter((employee, gap) -> getMinuteBreak(gap) < 10 * 60)
                 .penalize(HardSoftBigDecimalScore.ONE_HARD,
-                        (firstShift, secondShift) -> {
-                            int breakLength = (int) Duration.between(firstShift.getEnd(), secondShift.getStart()).toMinutes();
-                            return (10 * 60) - breakLength;
-                        })
+                        (employee, gap) -> (10 * 60) - getMinuteBreak(gap))
                 .asConstraint("At least 10 hours between 2 shifts");
     }
 
@@ -85,28 +125,25 @@ public class EmployeeSchedulingConstraintProvider implements ConstraintProvider
 
     Constraint unavailableEmployee(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .join(Employee.class, equal(Shift::getEmployee, Function.identity()))
-                .flattenLast(Employee::getUnavailableDates)
-                .filter(Shift::isOverlappingWithDate)
-                .penalize(HardSoftBigDecimalScore.ONE_HARD, Shift::getOverlappingDurationInMinutes)
+                .filter(shift -> shift.isOverlappingWithDays(shift.getEmployee().getUnavailableDayMask()))
+                .penalize(HardSoftBigDecimalScore.ONE_HARD,
+                        shift -> shift.getOverlappingDurationInMinutes(shift.getEmployee().getUnavailableDayMask()))
                 .asConstraint("Unavailable employee");
     }
 
     Constraint undesiredDayForEmployee(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .join(Employee.class, equal(Shift::getEmployee, Function.identity()))
-                .flattenLast(Employee::getUndesiredDates)
-                .filter(Shift::isOverlappingWithDate)
-                .penalize(HardSoftBigDecimalScore.ONE_SOFT, Shift::getOverlappingDurationInMinutes)
+                .filter(shift -> shift.isOverlappingWithDays(shift.getEmployee().getUndesiredDayMask()))
+                .penalize(HardSoftBigDecimalScore.ONE_SOFT,
+                        shift -> shift.getOverlappingDurationInMinutes(shift.getEmployee().getUndesiredDayMask()))
                 .asConstraint("Undesired day for employee");
     }
 
     Constraint desiredDayForEmployee(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
-                .join(Employee.class, equal(Shift::getEmployee, Function.identity()))
-                .flattenLast(Employee::getDesiredDates)
-                .filter(Shift::isOverlappingWithDate)
-                .reward(HardSoftBigDecimalScore.ONE_SOFT, Shift::getOverlappingDurationInMinutes)
+                .filter(shift -> shift.isOverlappingWithDays(shift.getEmployee().getDesiredDayMask()))
+                .reward(HardSoftBigDecimalScore.ONE_SOFT,
+                        shift -> shift.getOverlappingDurationInMinutes(shift.getEmployee().getDesiredDayMask()))
                 .asConstraint("Desired day for employee");
     }
 
@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import jakarta.inject.Inject;
@@ -44,6 +45,16 @@ class EmployeeSchedulingConstraintProviderTest {
                 .given(employee,
                         new Shift("2", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee))
                 .penalizes(0);
+
+        // In a schedule, the skills are numbered by the skill index of that schedule.
+        Employee amy = new Employee("Amy", Set.of("Other skill"), null, null, null);
+        Employee beth = new Employee("Beth", Set.of("Other skill", "Skill"), null, null, null);
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::requiredSkill)
+                .givenSolution(new EmployeeSchedule(List.of(amy, beth), List.of(
+                        new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", amy),
+                        new Shift("2", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", beth),
+                        new Shift("3", DAY_START_TIME, DAY_END_TIME, "Location", "Other skill", amy))))
+                .penalizes(1);
     }
 
     @Test
@@ -67,6 +78,14 @@ class EmployeeSchedulingConstraintProviderTest {
                         new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
                         new Shift("2", AFTERNOON_START_TIME, AFTERNOON_END_TIME, "Location 2", "Skill", employee1))
                 .penalizesBy((int) Duration.ofHours(4).toMinutes());
+
+        // Every pair of overlapping shifts is penalized.
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::noOverlappingShifts)
+                .given(employee1, employee2,
+                        new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
+                        new Shift("2", AFTERNOON_START_TIME, AFTERNOON_END_TIME, "Location 2", "Skill", employee1),
+                        new Shift("3", DAY_1.atTime(15, 0), DAY_1.atTime(19, 0), "Location 3", "Skill", employee1))
+                .penalizesBy((int) Duration.ofHours(4 + 2 + 4).toMinutes());
     }
 
     @Test
@@ -128,6 +147,13 @@ class EmployeeSchedulingConstraintProviderTest {
                         new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
                         new Shift("2", AFTERNOON_END_TIME, DAY_START_TIME.plusDays(1), "Location 2", "Skill", employee2))
                 .penalizes(0);
+        // Only the breaks between consecutive shifts are penalized.
+        constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::atLeast10HoursBetweenTwoShifts)
+                .given(employee1, employee2,
+                        new Shift("1", DAY_1.atTime(9, 0), DAY_1.atTime(11, 0), "Location", "Skill", employee1),
+                        new Shift("2", DAY_1.atTime(13, 0), DAY_1.atTime(15, 0), "Location 2", "Skill", employee1),
+                        new Shift("3", DAY_1.atTime(17, 0), DAY_1.atTime(19, 0), "Location 3", "Skill", employee1))
+                .penalizesBy(480 + 480);
         constraintVerifier.verifyThat(EmployeeSchedulingConstraintProvider::noOverlappingShifts)
                 .given(employee1, employee2,
                         new Shift("1", DAY_START_TIME, DAY_END_TIME, "Location", "Skill", employee1),
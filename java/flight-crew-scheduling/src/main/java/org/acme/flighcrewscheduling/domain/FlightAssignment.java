@@ -5,7 +5,11 @@ import java.util.Objects;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.variable.PiggybackShadowVariable;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
+import ai.timefold.solver.core.api.domain.variable.ShadowVariable;
+
+import org.acme.flighcrewscheduling.solver.FlightTimelineVariableListener;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -21,6 +25,14 @@ public class FlightAssignment {
     @PlanningVariable
     private Employee employee;
 
+    // The assignments of the same employee just before and after this one, ordered by flight
+    @ShadowVariable(variableListenerClass = FlightTimelineVariableListener.class, sourceVariableName = "employee")
+    @JsonIgnore
+    private FlightAssignment previousFlightAssignment;
+    @PiggybackShadowVariable(shadowVariableName = "previousFlightAssignment")
+    @JsonIgnore
+    private FlightAssignment nextFlightAssignment;
+
     public FlightAssignment() {
     }
 
@@ -96,6 +108,22 @@ public class FlightAssignment {
         this.employee = employee;
     }
 
+    public FlightAssignment getPreviousFlightAssignment() {
+        return previousFlightAssignment;
+    }
+
+    public void setPreviousFlightAssignment(FlightAssignment previousFlightAssignment) {
+        this.previousFlightAssignment = previousFlightAssignment;
+    }
+
+    public FlightAssignment getNextFlightAssignment() {
+        return nextFlightAssignment;
+    }
+
+    public void setNextFlightAssignment(FlightAssignment nextFlightAssignment) {
+        this.nextFlightAssignment = nextFlightAssignment;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -0,0 +1,152 @@
+package org.acme.flighcrewscheduling.solver;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import ai.timefold.solver.core.api.domain.variable.VariableListener;
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+
+import org.acme.flighcrewscheduling.domain.Employee;
+import org.acme.flighcrewscheduling.domain.FlightAssignment;
+import org.acme.flighcrewscheduling.domain.FlightCrewSchedule;
+
+/**
+ * Keeps {@link FlightAssignment#getPreviousFlightAssignment()} and {@link FlightAssignment#getNextFlightAssignment()}
+ * up to date with a timeline per employee, ordered by flight.
+ * <p>
+ * A changed assignment is only unlinked from its old neighbors and linked between its new neighbors,
+ * instead of comparing it with all the other assignments of the employee.
+ * The previous and next assignments are not part of the JSON,
+ * so the timelines are rebuilt from the employees whenever the working solution is set.
+ */
+public class FlightTimelineVariableListener implements VariableListener<FlightCrewSchedule, FlightAssignment> {
+
+    private static final Comparator<FlightAssignment> TIMELINE_COMPARATOR =
+            Comparator.comparing(FlightAssignment::getFlight)
+                    .thenComparing(FlightAssignment::getId);
+
+    private final Map<Employee, NavigableSet<FlightAssignment>> employeeToTimeline = new HashMap<>();
+
+    @Override
+    public void resetWorkingSolution(ScoreDirector<FlightCrewSchedule> scoreDirector) {
+        employeeToTimeline.clear();
+        for (FlightAssignment flightAssignment : scoreDirector.getWorkingSolution().getFlightAssignments()) {
+            flightAssignment.setPreviousFlightAssignment(null);
+            flightAssignment.setNextFlightAssignment(null);
+            if (flightAssignment.getEmployee() != null) {
+                getTimeline(flightAssignment.getEmployee()).add(flightAssignment);
+            }
+        }
+        // Nothing has been calculated from the previous and next assignments yet, so there is nothing to notify.
+        for (NavigableSet<FlightAssignment> timeline : employeeToTimeline.values()) {
+            FlightAssignment previousFlightAssignment = null;
+            for (FlightAssignment flightAssignment : timeline) {
+                if (previousFlightAssignment != null) {
+                    previousFlightAssignment.setNextFlightAssignment(flightAssignment);
+                    flightAssignment.setPreviousFlightAssignment(previousFlightAssignment);
+                }
+                previousFlightAssignment = flightAssignment;
+            }
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<FlightCrewSchedule> scoreDirector, FlightAssignment flightAssignment) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<FlightCrewSchedule> scoreDirector, FlightAssignment flightAssignment) {
+        link(scoreDirector, flightAssignment);
+    }
+
+    @Override
+    public void beforeVariableChanged(ScoreDirector<FlightCrewSchedule> scoreDirector,
+            FlightAssignment flightAssignment) {
+        unlink(scoreDirector, flightAssignment);
+    }
+
+    @Override
+    public void afterVariableChanged(ScoreDirector<FlightCrewSchedule> scoreDirector,
+            FlightAssignment flightAssignment) {
+        link(scoreDirector, flightAssignment);
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<FlightCrewSchedule> scoreDirector,
+            FlightAssignment flightAssignment) {
+        unlink(scoreDirector, flightAssignment);
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<FlightCrewSchedule> scoreDirector,
+            FlightAssignment flightAssignment) {
+        // Do nothing
+    }
+
+    private NavigableSet<FlightAssignment> getTimeline(Employee employee) {
+        return employeeToTimeline.computeIfAbsent(employee, ignored -> new TreeSet<>(TIMELINE_COMPARATOR));
+    }
+
+    private void link(ScoreDirector<FlightCrewSchedule> scoreDirector, FlightAssignment flightAssignment) {
+        Employee employee = flightAssignment.getEmployee();
+        if (employee == null) {
+            return;
+        }
+        NavigableSet<FlightAssignment> timeline = getTimeline(employee);
+        timeline.add(flightAssignment);
+        FlightAssignment previousFlightAssignment = timeline.lower(flightAssignment);
+        FlightAssignment nextFlightAssignment = timeline.higher(flightAssignment);
+        updatePrevious(scoreDirector, flightAssignment, previousFlightAssignment);
+        updateNext(scoreDirector, flightAssignment, nextFlightAssignment);
+        if (previousFlightAssignment != null) {
+            updateNext(scoreDirector, previousFlightAssignment, flightAssignment);
+        }
+        if (nextFlightAssignment != null) {
+            updatePrevious(scoreDirector, nextFlightAssignment, flightAssignment);
+        }
+    }
+
+    private void unlink(ScoreDirector<FlightCrewSchedule> scoreDirector, FlightAssignment flightAssignment) {
+        Employee employee = flightAssignment.getEmployee();
+        if (employee == null) {
+            return;
+        }
+        NavigableSet<FlightAssignment> timeline = employeeToTimeline.get(employee);
+        // Not in a timeline yet, for example when all the assignments are announced after the working solution is set.
+        if (timeline == null || !timeline.remove(flightAssignment)) {
+            return;
+        }
+        FlightAssignment previousFlightAssignment = flightAssignment.getPreviousFlightAssignment();
+        FlightAssignment nextFlightAssignment = flightAssignment.getNextFlightAssignment();
+        if (previousFlightAssignment != null) {
+            updateNext(scoreDirector, previousFlightAssignment, nextFlightAssignment);
+        }
+        if (nextFlightAssignment != null) {
+            updatePrevious(scoreDirector, nextFlightAssignment, previousFlightAssignment);
+        }
+        updatePrevious(scoreDirector, flightAssignment, null);
+        updateNext(scoreDirector, flightAssignment, null);
+    }
+
+    private static void updatePrevious(ScoreDirector<FlightCrewSchedule> scoreDirector,
+            FlightAssignment flightAssignment, FlightAssignment previousFlightAssignment) {
+        if (flightAssignment.getPreviousFlightAssignment() != previousFlightAssignment) {
+            scoreDirector.beforeVariableChanged(flightAssignment, "previousFlightAssignment");
+            flightAssignment.setPreviousFlightAssignment(previousFlightAssignment);
+            scoreDirector.afterVariableChanged(flightAssignment, "previousFlightAssignment");
+        }
+    }
+
+    private static void updateNext(ScoreDirector<FlightCrewSchedule> scoreDirector,
+            FlightAssignment flightAssignment, FlightAssignment nextFlightAssignment) {
+        if (flightAssignment.getNextFlightAssignment() != nextFlightAssignment) {
+            scoreDirector.beforeVariableChanged(flightAssignment, "nextFlightAssignment");
+            flightAssignment.setNextFlightAssignment(nextFlightAssignment);
+            scoreDirector.afterVariableChanged(flightAssignment, "nextFlightAssignment");
+        }
+    }
+}
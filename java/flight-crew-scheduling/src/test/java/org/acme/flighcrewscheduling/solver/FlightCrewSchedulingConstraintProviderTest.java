@@ -81,6 +81,7 @@ class FlightCrewSchedulingConstraintProviderTest {
                         LocalDateTime.now().plusMinutes(14));
         FlightAssignment secondInvalidAssignment = new FlightAssignment("3", secondInvalidFlight);
         secondInvalidAssignment.setEmployee(employee);
+        linkTimeline(firstAssignment, firstInvalidAssignment, secondInvalidAssignment);
 
         constraintVerifier.verifyThat(FlightCrewSchedulingConstraintProvider::transferBetweenTwoFlights)
                 .given(firstAssignment, firstInvalidAssignment, secondInvalidAssignment)
@@ -135,6 +136,8 @@ class FlightCrewSchedulingConstraintProviderTest {
                         LocalDateTime.now().plusMinutes(10));
         FlightAssignment fourthAssignment = new FlightAssignment("4", fourthFlight);
         fourthAssignment.setEmployee(secondEmployee);
+        linkTimeline(assignment, secondAssignment, thirdAssignment);
+        linkTimeline(fourthAssignment);
 
         constraintVerifier.verifyThat(FlightCrewSchedulingConstraintProvider::firstAssignmentNotDepartingFromHome)
                 .given(employee, secondEmployee, assignment, secondAssignment, thirdAssignment, fourthAssignment)
@@ -174,10 +177,23 @@ class FlightCrewSchedulingConstraintProviderTest {
                         LocalDateTime.now().plusMinutes(12));
         FlightAssignment fourthFlightAssignment = new FlightAssignment("4", fourthFlight);
         fourthFlightAssignment.setEmployee(secondEmployee);
+        linkTimeline(firstAssignment, secondAssignment);
+        linkTimeline(thirdFlightAssignment, fourthFlightAssignment);
 
         constraintVerifier.verifyThat(FlightCrewSchedulingConstraintProvider::lastAssignmentNotArrivingAtHome)
                 .given(employee, secondEmployee, firstAssignment, secondAssignment, thirdFlightAssignment,
                         fourthFlightAssignment)
                 .penalizesBy(1); // invalid last airport
     }
+
+    /**
+     * The constraint verifier does not trigger the variable listeners,
+     * so link the previous and next assignments of an employee like {@link FlightTimelineVariableListener} does.
+     */
+    private static void linkTimeline(FlightAssignment... timeline) {
+        for (int i = 1; i < timeline.length; i++) {
+            timeline[i - 1].setNextFlightAssignment(timeline[i]);
+            timeline[i].setPreviousFlightAssignment(timeline[i - 1]);
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package org.acme.flighcrewscheduling.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+
+import org.acme.flighcrewscheduling.domain.Employee;
+import org.acme.flighcrewscheduling.domain.FlightAssignment;
+import org.acme.flighcrewscheduling.domain.FlightCrewSchedule;
+import org.acme.flighcrewscheduling.rest.DemoDataGenerator;
+import org.junit.jupiter.api.Test;
+
+class FlightTimelineVariableListenerTest {
+
+    @Test
+    void reassignAndUnassign() {
+        FlightCrewSchedule schedule = new DemoDataGenerator().generateDemoData();
+        List<FlightAssignment> flightAssignments = schedule.getFlightAssignments();
+        List<Employee> employees = schedule.getEmployees();
+        for (int i = 0; i < flightAssignments.size(); i++) {
+            flightAssignments.get(i).setEmployee(employees.get(i % employees.size()));
+        }
+
+        SolutionManager<FlightCrewSchedule, ?> solutionManager = SolutionManager.create(
+                SolverFactory.create(buildSolverConfig()));
+        solutionManager.update(schedule);
+        assertTimelines(schedule);
+
+        // Every update starts from the previous and next assignments of the update before.
+        Random random = new Random(37);
+        for (int i = 0; i < 100; i++) {
+            FlightAssignment flightAssignment = flightAssignments.get(random.nextInt(flightAssignments.size()));
+            // Unassign every fifth change, reassign the others
+            Employee employee = i % 5 == 0 ? null : employees.get(random.nextInt(employees.size()));
+            flightAssignment.setEmployee(employee);
+            solutionManager.update(schedule);
+            assertTimelines(schedule);
+        }
+    }
+
+    @Test
+    void resolveSolvedSchedule() {
+        SolverFactory<FlightCrewSchedule> solverFactory = SolverFactory.create(buildSolverConfig()
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withPhases(new ConstructionHeuristicPhaseConfig(),
+                        new LocalSearchPhaseConfig().withTerminationConfig(
+                                new TerminationConfig().withStepCountLimit(100))));
+        FlightCrewSchedule solution = solverFactory.buildSolver().solve(new DemoDataGenerator().generateDemoData());
+        assertTimelines(solution);
+
+        // The previous and next assignments are not part of the JSON, so a solved schedule comes back without them.
+        for (FlightAssignment flightAssignment : solution.getFlightAssignments()) {
+            flightAssignment.setPreviousFlightAssignment(null);
+            flightAssignment.setNextFlightAssignment(null);
+        }
+        FlightCrewSchedule resolvedSolution = solverFactory.buildSolver().solve(solution);
+        assertThat(resolvedSolution.getScore()).isNotNull();
+        assertTimelines(resolvedSolution);
+    }
+
+    private static SolverConfig buildSolverConfig() {
+        return new SolverConfig()
+                .withSolutionClass(FlightCrewSchedule.class)
+                .withEntityClasses(FlightAssignment.class)
+                .withConstraintProviderClass(FlightCrewSchedulingConstraintProvider.class);
+    }
+
+    private static void assertTimelines(FlightCrewSchedule schedule) {
+        Map<Employee, List<FlightAssignment>> employeeToTimeline = schedule.getFlightAssignments().stream()
+                .filter(flightAssignment -> flightAssignment.getEmployee() != null)
+                .sorted(Comparator.comparing(FlightAssignment::getFlight).thenComparing(FlightAssignment::getId))
+                .collect(Collectors.groupingBy(FlightAssignment::getEmployee));
+        for (FlightAssignment flightAssignment : schedule.getFlightAssignments()) {
+            List<FlightAssignment> timeline = employeeToTimeline.get(flightAssignment.getEmployee());
+            if (timeline == null) {
+                assertThat(flightAssignment.getPreviousFlightAssignment()).as(flightAssignment.getId()).isNull();
+                assertThat(flightAssignment.getNextFlightAssignment()).as(flightAssignment.getId()).isNull();
+                continue;
+            }
+            int index = timeline.indexOf(flightAssignment);
+            assertThat(flightAssignment.getPreviousFlightAssignment()).as(flightAssignment.getId())
+                    .isSameAs(index == 0 ? null : timeline.get(index - 1));
+            assertThat(flightAssignment.getNextFlightAssignment()).as(flightAssignment.getId())
+                    .isSameAs(index == timeline.size() - 1 ? null : timeline.get(index + 1));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -59,7 +60,8 @@ public class DemoDataGenerator {
 
         solution.setWorkCalendar(new WorkCalendar(START_DATE, END_DATE));
 
-        Map<Product, Set<String>> ingredientMap = new HashMap<>(INGREDIENT_LIST.size() * PRODUCT_VARIATION_LIST.size() * 3);
+        // Ordered, so the same problem is generated after a restart.
+        Map<Product, Set<String>> ingredientMap = new LinkedHashMap<>(INGREDIENT_LIST.size() * PRODUCT_VARIATION_LIST.size() * 3);
         long productId = 0;
         for (int i = 0; i < INGREDIENT_LIST.size(); i++) {
             String ingredient = INGREDIENT_LIST.get(i);
@@ -112,7 +114,7 @@ public class DemoDataGenerator {
         jobs.sort(Comparator.comparing(Job::getName));
         solution.setJobs(jobs);
 
-        repository.write(solution);
+        repository.restore(solution);
     }
 
     private static final List<String> INGREDIENT_LIST = List.of(
@@ -2,6 +2,7 @@ package org.acme.foodpackaging.domain;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.entity.PlanningPin;
@@ -43,13 +44,18 @@ public class Job {
 
     /**
      * Start is after cleanup.
+     * <p>
+     * The times are kept in epoch minutes (UTC), so the cascade down the line doesn't allocate date times.
      */
+    @JsonIgnore
     @CascadingUpdateShadowVariable(targetMethodName = "updateStartCleaningDateTime")
-    private LocalDateTime startCleaningDateTime;
+    private Long startCleaningMinute;
+    @JsonIgnore
     @CascadingUpdateShadowVariable(targetMethodName = "updateStartCleaningDateTime")
-    private LocalDateTime startProductionDateTime;
+    private Long startProductionMinute;
+    @JsonIgnore
     @CascadingUpdateShadowVariable(targetMethodName = "updateStartCleaningDateTime")
-    private LocalDateTime endDateTime;
+    private Long endMinute;
 
     // No-arg constructor required for Timefold
     public Job() {
@@ -69,9 +75,9 @@ public class Job {
         this.idealEndTime = idealEndTime;
         this.maxEndTime = maxEndTime;
         this.priority = priority;
-        this.startCleaningDateTime = startCleaningDateTime;
-        this.startProductionDateTime = startProductionDateTime;
-        this.endDateTime = startProductionDateTime == null ? null : startProductionDateTime.plus(duration);
+        this.startCleaningMinute = toNullableEpochMinute(startCleaningDateTime);
+        this.startProductionMinute = toNullableEpochMinute(startProductionDateTime);
+        this.endMinute = startProductionMinute == null ? null : startProductionMinute + duration.toMinutes();
         this.pinned = pinned;
     }
 
@@ -146,27 +152,49 @@ public class Job {
     }
 
     public LocalDateTime getStartCleaningDateTime() {
-        return startCleaningDateTime;
+        return toDateTime(startCleaningMinute);
     }
 
     public void setStartCleaningDateTime(LocalDateTime startCleaningDateTime) {
-        this.startCleaningDateTime = startCleaningDateTime;
+        this.startCleaningMinute = toNullableEpochMinute(startCleaningDateTime);
     }
 
     public LocalDateTime getStartProductionDateTime() {
-        return startProductionDateTime;
+        return toDateTime(startProductionMinute);
     }
 
     public void setStartProductionDateTime(LocalDateTime startProductionDateTime) {
-        this.startProductionDateTime = startProductionDateTime;
+        this.startProductionMinute = toNullableEpochMinute(startProductionDateTime);
     }
 
     public LocalDateTime getEndDateTime() {
-        return endDateTime;
+        return toDateTime(endMinute);
     }
 
     public void setEndDateTime(LocalDateTime endDateTime) {
-        this.endDateTime = endDateTime;
+        this.endMinute = toNullableEpochMinute(endDateTime);
+    }
+
+    public Long getStartCleaningMinute() {
+        return startCleaningMinute;
+    }
+
+    public Long getStartProductionMinute() {
+        return startProductionMinute;
+    }
+
+    public Long getEndMinute() {
+        return endMinute;
+    }
+
+    @JsonIgnore
+    public long getIdealEndMinute() {
+        return toEpochMinute(idealEndTime);
+    }
+
+    @JsonIgnore
+    public long getMaxEndMinute() {
+        return toEpochMinute(maxEndTime);
     }
 
     // ************************************************************************
@@ -175,28 +203,39 @@ public class Job {
 
     @SuppressWarnings("unused")
     private void updateStartCleaningDateTime() {
-        if (getLine() == null) {
-            if (getStartCleaningDateTime() != null) {
-                setStartCleaningDateTime(null);
-                setStartProductionDateTime(null);
-                setEndDateTime(null);
+        if (line == null) {
+            if (startCleaningMinute != null) {
+                startCleaningMinute = null;
+                startProductionMinute = null;
+                endMinute = null;
             }
             return;
         }
-        Job previous = getPreviousJob();
-        LocalDateTime startCleaning;
-        LocalDateTime startProduction;
+        Job previous = previousJob;
+        Long startCleaning;
+        Long startProduction;
         if (previous == null) {
-            startCleaning = line.getStartDateTime();
-            startProduction = line.getStartDateTime();
+            startCleaning = line.getStartMinute();
+            startProduction = startCleaning;
         } else {
-            startCleaning = previous.getEndDateTime();
-            startProduction = startCleaning == null ? null : startCleaning.plus(getProduct().getCleanupDuration(previous.getProduct()));
+            startCleaning = previous.endMinute;
+            startProduction = startCleaning == null ? null : startCleaning + product.getCleanupMinutes(previous.product);
         }
-        setStartCleaningDateTime(startCleaning);
-        setStartProductionDateTime(startProduction);
-        var endTime = startProduction == null ? null : startProduction.plus(getDuration());
-        setEndDateTime(endTime);
+        startCleaningMinute = startCleaning;
+        startProductionMinute = startProduction;
+        endMinute = startProduction == null ? null : startProduction + duration.toMinutes();
+    }
+
+    static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60L;
+    }
+
+    private static Long toNullableEpochMinute(LocalDateTime dateTime) {
+        return dateTime == null ? null : toEpochMinute(dateTime);
+    }
+
+    private static LocalDateTime toDateTime(Long epochMinute) {
+        return epochMinute == null ? null : LocalDateTime.ofEpochSecond(epochMinute * 60L, 0, ZoneOffset.UTC);
     }
 
 }
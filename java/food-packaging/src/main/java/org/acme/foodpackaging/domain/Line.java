@@ -59,6 +59,11 @@ public class Line {
         return startDateTime;
     }
 
+    @JsonIgnore
+    public long getStartMinute() {
+        return Job.toEpochMinute(startDateTime);
+    }
+
     public List<Job> getJobs() {
         return jobs;
     }
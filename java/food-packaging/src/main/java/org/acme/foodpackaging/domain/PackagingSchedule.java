@@ -55,6 +55,9 @@ public class PackagingSchedule {
 
     public void setProducts(List<Product> products) {
         this.products = products;
+        if (products != null) {
+            Product.indexCleanupDurations(products);
+        }
     }
 
     public List<Line> getLines() {
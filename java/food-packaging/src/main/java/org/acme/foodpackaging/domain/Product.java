@@ -3,6 +3,7 @@ package org.acme.foodpackaging.domain;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 public class Product {
@@ -13,6 +14,11 @@ public class Product {
     /** The map key is previous product on assembly line. */
     private Map<Product, Duration> cleaningDurations;
 
+    /** Dense index of this product, see {@link #indexCleanupDurations(List)}. */
+    private int index = -1;
+    /** The cleanup duration in minutes, indexed by the previous product index, or -1 if missing. */
+    private int[] cleanupMinutes;
+
     public Product() {
     }
 
@@ -35,6 +41,51 @@ public class Product {
         return cleanupDuration;
     }
 
+    /**
+     * Same as {@link #getCleanupDuration(Product)}, but in minutes.
+     * Used by the cascading shadow variables of {@link Job}, so it's an array lookup if the products are indexed.
+     */
+    public int getCleanupMinutes(Product previousProduct) {
+        if (cleanupMinutes == null || previousProduct.index < 0) {
+            return (int) getCleanupDuration(previousProduct).toMinutes();
+        }
+        int minutes = cleanupMinutes[previousProduct.index];
+        if (minutes < 0) {
+            // Fails on the missing cleanup duration.
+            return (int) getCleanupDuration(previousProduct).toMinutes();
+        }
+        return minutes;
+    }
+
+    /**
+     * Index the products densely and precompute a cleanup duration matrix in minutes from their
+     * {@link #getCleaningDurations()}.
+     * Called by {@link PackagingSchedule#setProducts(List)},
+     * so the cleaning durations must be set before the products are set on the schedule.
+     * A product without cleaning durations yet keeps using its map.
+     *
+     * @param products never null, all the products of the schedule
+     */
+    static void indexCleanupDurations(List<Product> products) {
+        int productCount = products.size();
+        for (int i = 0; i < productCount; i++) {
+            products.get(i).index = i;
+        }
+        int[][] cleanupMinutesMatrix = new int[productCount][productCount];
+        for (Product product : products) {
+            if (product.cleaningDurations == null) {
+                product.cleanupMinutes = null;
+                continue;
+            }
+            int[] row = cleanupMinutesMatrix[product.index];
+            for (Product previousProduct : products) {
+                Duration cleanupDuration = product.cleaningDurations.get(previousProduct);
+                row[previousProduct.index] = cleanupDuration == null ? -1 : Math.toIntExact(cleanupDuration.toMinutes());
+            }
+            product.cleanupMinutes = row;
+        }
+    }
+
     // ************************************************************************
     // Getters and setters
     // ************************************************************************
@@ -57,6 +108,7 @@ public class Product {
 
     public void setCleaningDurations(Map<Product, Duration> cleaningDurations) {
         this.cleaningDurations = cleaningDurations;
+        this.cleanupMinutes = null;
     }
 
 }
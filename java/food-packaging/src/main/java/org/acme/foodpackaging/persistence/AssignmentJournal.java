@@ -0,0 +1,379 @@
+package org.acme.foodpackaging.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the planning variables of a solution as an assignment:
+ * the ordered list of value IDs of every planning entity ID.
+ * <p>
+ * The last committed assignment is kept in a snapshot file,
+ * and every later change is appended to a memory-mapped journal file as a record of the changed entities only.
+ * So storing a new best solution writes only a few bytes, instead of serializing the whole solution.
+ * Once the journal holds {@code compactionThreshold} records or is full,
+ * it is compacted into a new snapshot and emptied.
+ * <p>
+ * A record is [length][CRC32][payload], and its length is written last,
+ * so a record torn by a crash is either skipped or detected by its checksum.
+ * Both files carry a generation number, so a journal older than the snapshot is never replayed onto it.
+ * The journal header also marks how far records may have been written since the journal was last cleared,
+ * so clearing it only zeroes that part instead of the whole file.
+ */
+final class AssignmentJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AssignmentJournal.class);
+
+    static final String SNAPSHOT_FILE_NAME = "assignment.snapshot";
+    static final String JOURNAL_FILE_NAME = "assignment.journal";
+    static final int DEFAULT_JOURNAL_CAPACITY = 16 * 1024 * 1024;
+
+    // The journal header is [generation][dirty end].
+    static final int JOURNAL_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private static final int SNAPSHOT_MAGIC = 0x41534E50; // "ASNP"
+    private static final int DIRTY_END_POSITION = Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    // The dirty end grows by whole blocks, so the header is not forced for every record.
+    private static final int DIRTY_BLOCK_SIZE = 64 * 1024;
+    private static final byte[] ZEROS = new byte[8 * 1024];
+
+    private final Path directory;
+    private final int compactionThreshold;
+    private final FileChannel journalChannel;
+    private final MappedByteBuffer journal;
+
+    private String fingerprint;
+    private long generation = 0L;
+    private int journalPosition = JOURNAL_HEADER_SIZE;
+    // Every byte from here on is zero, including those of a previous run.
+    private int dirtyEnd;
+    private int recordCount = 0;
+    // The assignment as persisted so far, to find the changed entities.
+    private Map<String, List<String>> assignment = null;
+
+    /**
+     * @param directory never null, created if it does not exist
+     * @param compactionThreshold the number of journal records after which the journal is compacted
+     * @param journalCapacity the size of the memory-mapped journal file in bytes
+     */
+    AssignmentJournal(Path directory, int compactionThreshold, int journalCapacity) {
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("The compactionThreshold (%d) must be greater than zero."
+                    .formatted(compactionThreshold));
+        }
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+        try {
+            Files.createDirectories(directory);
+            journalChannel = FileChannel.open(directory.resolve(JOURNAL_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            journal = journalChannel.map(FileChannel.MapMode.READ_WRITE, 0L, journalCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed opening the assignment journal in directory (%s)."
+                    .formatted(directory), e);
+        }
+        int persistedDirtyEnd = journal.getInt(DIRTY_END_POSITION);
+        if (persistedDirtyEnd == 0) {
+            // A new journal file is all zeroes.
+            dirtyEnd = JOURNAL_HEADER_SIZE;
+        } else if (persistedDirtyEnd < JOURNAL_HEADER_SIZE || persistedDirtyEnd > journal.capacity()) {
+            LOGGER.warn("Ignoring the invalid dirty end ({}) of the assignment journal.", persistedDirtyEnd);
+            dirtyEnd = journal.capacity();
+        } else {
+            dirtyEnd = persistedDirtyEnd;
+        }
+    }
+
+    /**
+     * Read the last committed assignment, including all the changes in the journal.
+     *
+     * @param fingerprint never null, identifies the problem the assignment belongs to
+     * @return null if there is no persisted assignment of that problem
+     */
+    synchronized Map<String, List<String>> recover(String fingerprint) {
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE_NAME);
+        if (!Files.exists(snapshotFile)) {
+            return null;
+        }
+        Map<String, List<String>> recoveredAssignment;
+        long snapshotGeneration;
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(snapshotFile))) {
+            if (input.readInt() != SNAPSHOT_MAGIC) {
+                LOGGER.warn("Ignoring the assignment snapshot ({}) with an unknown format.", snapshotFile);
+                return null;
+            }
+            snapshotGeneration = input.readLong();
+            if (!input.readUTF().equals(fingerprint)) {
+                LOGGER.info("Ignoring the assignment snapshot ({}) of another problem.", snapshotFile);
+                return null;
+            }
+            recoveredAssignment = readAssignment(input);
+        } catch (IOException e) {
+            LOGGER.warn("Failed reading the assignment snapshot ({}).", snapshotFile, e);
+            return null;
+        }
+
+        int replayedCount = 0;
+        int position = JOURNAL_HEADER_SIZE;
+        if (journal.getLong(0) == snapshotGeneration) {
+            while (position + RECORD_HEADER_SIZE <= dirtyEnd) {
+                int length = journal.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > dirtyEnd) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                journal.get(position + RECORD_HEADER_SIZE, payload);
+                if (journal.getInt(position + Integer.BYTES) != checksum(payload)) {
+                    LOGGER.warn("Ignoring the torn assignment journal record at position ({}).", position);
+                    break;
+                }
+                try {
+                    recoveredAssignment.putAll(readAssignment(new DataInputStream(new ByteArrayInputStream(payload))));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Impossible state: the checksum of a corrupt record matched.", e);
+                }
+                position += RECORD_HEADER_SIZE + length;
+                replayedCount++;
+            }
+        }
+        LOGGER.info("Recovered the assignment of generation ({}) with ({}) journal records.",
+                snapshotGeneration, replayedCount);
+        this.fingerprint = fingerprint;
+        this.generation = snapshotGeneration;
+        this.assignment = new LinkedHashMap<>(recoveredAssignment);
+        // Keep appending after the replayed records, overwriting any torn record or older journal.
+        clearJournal(position);
+        journal.putLong(0, snapshotGeneration);
+        journal.force(0, JOURNAL_HEADER_SIZE);
+        this.journalPosition = position;
+        this.recordCount = replayedCount;
+        return recoveredAssignment;
+    }
+
+    /**
+     * Persist the assignment of a new problem, replacing any persisted assignment.
+     *
+     * @param fingerprint never null, identifies the problem the assignment belongs to
+     * @param newAssignment never null
+     */
+    synchronized void reset(String fingerprint, Map<String, List<String>> newAssignment) {
+        this.fingerprint = fingerprint;
+        compact(new LinkedHashMap<>(newAssignment));
+    }
+
+    /**
+     * Persist only the entities that changed since the last persisted assignment.
+     *
+     * @param newAssignment never null, of the same problem as the last {@link #reset} or {@link #recover}
+     */
+    synchronized void write(Map<String, List<String>> newAssignment) {
+        if (assignment == null) {
+            throw new IllegalStateException("The journal has no problem yet, call reset() or recover() first.");
+        }
+        Map<String, List<String>> changedAssignment = new LinkedHashMap<>();
+        newAssignment.forEach((entityId, valueIds) -> {
+            if (!Objects.equals(assignment.get(entityId), valueIds)) {
+                changedAssignment.put(entityId, valueIds);
+            }
+        });
+        assignment.keySet().forEach(entityId -> {
+            if (!newAssignment.containsKey(entityId)) {
+                changedAssignment.put(entityId, List.of());
+            }
+        });
+        if (changedAssignment.isEmpty()) {
+            return;
+        }
+        byte[] payload = toBytes(changedAssignment);
+        Map<String, List<String>> mergedAssignment = new LinkedHashMap<>(assignment);
+        mergedAssignment.putAll(changedAssignment);
+        if (recordCount >= compactionThreshold
+                || journalPosition + RECORD_HEADER_SIZE + payload.length > journal.capacity()) {
+            compact(mergedAssignment);
+            return;
+        }
+        markDirty(journalPosition + RECORD_HEADER_SIZE + payload.length);
+        journal.put(journalPosition + RECORD_HEADER_SIZE, payload);
+        journal.putInt(journalPosition + Integer.BYTES, checksum(payload));
+        // The length is written last: until then, the record does not exist.
+        journal.putInt(journalPosition, payload.length);
+        journal.force(journalPosition, RECORD_HEADER_SIZE + payload.length);
+        journalPosition += RECORD_HEADER_SIZE + payload.length;
+        recordCount++;
+        assignment = mergedAssignment;
+    }
+
+    /**
+     * @param problemKeys never null, every problem fact and entity that the assignment depends on, in a stable order
+     * @return never null, a hash of the keys, so different problems never share an assignment
+     */
+    static String fingerprint(List<String> problemKeys) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 algorithm is not available.", e);
+        }
+        for (String problemKey : problemKeys) {
+            digest.update(problemKey.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        journalChannel.close();
+    }
+
+    // ************************************************************************
+    // Compaction
+    // ************************************************************************
+
+    private void compact(Map<String, List<String>> newAssignment) {
+        long newGeneration = generation + 1;
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE_NAME);
+        try {
+            Path temporaryFile = Files.createTempFile(directory, SNAPSHOT_FILE_NAME, ".tmp");
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+                    DataOutputStream output = new DataOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                output.writeInt(SNAPSHOT_MAGIC);
+                output.writeLong(newGeneration);
+                output.writeUTF(fingerprint);
+                writeAssignment(output, newAssignment);
+                output.flush();
+                // Otherwise the rename may reach the disk before the content, replacing the snapshot by an empty file.
+                channel.force(true);
+            }
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Otherwise a crash after clearing the journal may bring back the previous snapshot without its journal.
+            forceDirectory();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed writing the assignment snapshot (%s).".formatted(snapshotFile), e);
+        }
+        // A crash from here on leaves a journal of an older generation, which is ignored by recover().
+        clearJournal(JOURNAL_HEADER_SIZE);
+        journal.putLong(0, newGeneration);
+        journal.force(0, JOURNAL_HEADER_SIZE);
+        generation = newGeneration;
+        journalPosition = JOURNAL_HEADER_SIZE;
+        recordCount = 0;
+        assignment = newAssignment;
+    }
+
+    private void forceDirectory() throws IOException {
+        FileChannel directoryChannel;
+        try {
+            directoryChannel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Some platforms, such as Windows, cannot open a directory, and make a rename durable on their own.
+            LOGGER.debug("Skipping forcing the assignment directory ({}).", directory, e);
+            return;
+        }
+        try (directoryChannel) {
+            directoryChannel.force(true);
+        }
+    }
+
+    /**
+     * Zero the journal from the given position up to its dirty end, and move the dirty end there.
+     * The caller forces the header.
+     */
+    private void clearJournal(int fromPosition) {
+        if (fromPosition < dirtyEnd) {
+            for (int position = fromPosition; position < dirtyEnd; position += ZEROS.length) {
+                journal.put(position, ZEROS, 0, Math.min(ZEROS.length, dirtyEnd - position));
+            }
+            // The zeroes must be on disk before the header no longer marks them as dirty.
+            journal.force(fromPosition, dirtyEnd - fromPosition);
+        }
+        dirtyEnd = fromPosition;
+        journal.putInt(DIRTY_END_POSITION, dirtyEnd);
+    }
+
+    /**
+     * Before writing a record, make sure the header marks its bytes as dirty.
+     */
+    private void markDirty(int end) {
+        if (end <= dirtyEnd) {
+            return;
+        }
+        dirtyEnd = (int) Math.min((end + DIRTY_BLOCK_SIZE - 1L) / DIRTY_BLOCK_SIZE * DIRTY_BLOCK_SIZE,
+                journal.capacity());
+        journal.putInt(DIRTY_END_POSITION, dirtyEnd);
+        journal.force(0, JOURNAL_HEADER_SIZE);
+    }
+
+    // ************************************************************************
+    // Encoding
+    // ************************************************************************
+
+    private static byte[] toBytes(Map<String, List<String>> assignment) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            writeAssignment(output, assignment);
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossible state: writing to memory failed.", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void writeAssignment(DataOutputStream output, Map<String, List<String>> assignment)
+            throws IOException {
+        output.writeInt(assignment.size());
+        for (Map.Entry<String, List<String>> entry : assignment.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeInt(entry.getValue().size());
+            for (String valueId : entry.getValue()) {
+                output.writeUTF(valueId);
+            }
+        }
+    }
+
+    private static Map<String, List<String>> readAssignment(DataInputStream input) throws IOException {
+        int entityCount = input.readInt();
+        Map<String, List<String>> assignment = new LinkedHashMap<>(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            String entityId = input.readUTF();
+            int valueCount = input.readInt();
+            List<String> valueIds = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                valueIds.add(input.readUTF());
+            }
+            assignment.put(entityId, valueIds);
+        }
+        return assignment;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
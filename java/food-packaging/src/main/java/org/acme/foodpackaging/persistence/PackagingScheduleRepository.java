@@ -1,15 +1,70 @@
 package org.acme.foodpackaging.persistence;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+
+import org.acme.foodpackaging.domain.Job;
+import org.acme.foodpackaging.domain.Line;
 import org.acme.foodpackaging.domain.PackagingSchedule;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps the schedule in memory.
+ * <p>
+ * If a persistence directory is configured, the jobs of every line are also persisted in an {@link AssignmentJournal},
+ * so a restarted instance resumes from the last best solution instead of the initial problem.
+ */
 @ApplicationScoped
 public class PackagingScheduleRepository {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PackagingScheduleRepository.class);
+
+    @ConfigProperty(name = "food-packaging.persistence.directory")
+    Optional<Path> persistenceDirectory;
+    @ConfigProperty(name = "food-packaging.persistence.compaction-threshold", defaultValue = "1000")
+    int compactionThreshold;
+
+    @Inject
+    SolutionManager<PackagingSchedule, HardMediumSoftLongScore> solutionManager;
+
     private final AtomicReference<PackagingSchedule> solutionReference = new AtomicReference<>();
+    private AssignmentJournal journal;
+
+    @PostConstruct
+    void openJournal() {
+        journal = persistenceDirectory
+                .map(directory -> new AssignmentJournal(directory, compactionThreshold,
+                        AssignmentJournal.DEFAULT_JOURNAL_CAPACITY))
+                .orElse(null);
+    }
+
+    @PreDestroy
+    void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
 
     public PackagingSchedule read() {
         return solutionReference.get();
@@ -17,6 +72,84 @@ public class PackagingScheduleRepository {
 
     public void write(PackagingSchedule schedule) {
         solutionReference.set(schedule);
+        if (journal != null) {
+            try {
+                journal.write(toAssignment(schedule));
+            } catch (UncheckedIOException e) {
+                LOGGER.warn("Failed persisting the schedule, keeping it in memory only.", e);
+            }
+        }
+    }
+
+    /**
+     * Store the initial problem.
+     * If the persisted jobs of every line belong to that same problem, they are restored onto it first.
+     *
+     * @param problem never null
+     */
+    public void restore(PackagingSchedule problem) {
+        if (journal != null) {
+            String fingerprint = fingerprint(problem);
+            Map<String, List<String>> assignment = journal.recover(fingerprint);
+            if (assignment != null && applyAssignment(problem, assignment)) {
+                solutionManager.update(problem);
+                LOGGER.info("Restored the persisted schedule with score ({}).", problem.getScore());
+            } else {
+                journal.reset(fingerprint, toAssignment(problem));
+            }
+        }
+        solutionReference.set(problem);
+    }
+
+    // ************************************************************************
+    // Assignment
+    // ************************************************************************
+
+    private static Map<String, List<String>> toAssignment(PackagingSchedule schedule) {
+        Map<String, List<String>> assignment = new LinkedHashMap<>(schedule.getLines().size());
+        for (Line line : schedule.getLines()) {
+            assignment.put(line.getId(), line.getJobs().stream().map(Job::getId).toList());
+        }
+        return assignment;
+    }
+
+    private static boolean applyAssignment(PackagingSchedule problem, Map<String, List<String>> assignment) {
+        Map<String, Job> idToJob = problem.getJobs().stream()
+                .collect(Collectors.toMap(Job::getId, Function.identity()));
+        Map<Line, List<Job>> lineToJobs = new LinkedHashMap<>(problem.getLines().size());
+        Set<String> assignedJobIds = new HashSet<>();
+        for (Line line : problem.getLines()) {
+            List<String> jobIds = assignment.getOrDefault(line.getId(), List.of());
+            List<Job> jobs = new ArrayList<>(jobIds.size());
+            for (String jobId : jobIds) {
+                Job job = idToJob.get(jobId);
+                if (job == null || !assignedJobIds.add(jobId)) {
+                    LOGGER.warn("Ignoring the persisted schedule with an unknown or duplicate job ({}).", jobId);
+                    return false;
+                }
+                jobs.add(job);
+            }
+            lineToJobs.put(line, jobs);
+        }
+        lineToJobs.forEach((line, jobs) -> {
+            line.getJobs().clear();
+            line.getJobs().addAll(jobs);
+        });
+        return true;
+    }
+
+    private static String fingerprint(PackagingSchedule problem) {
+        List<String> problemKeys = new ArrayList<>();
+        problemKeys.add(problem.getWorkCalendar().getFromDate() + "/" + problem.getWorkCalendar().getToDate());
+        for (Line line : problem.getLines()) {
+            problemKeys.add(line.getId() + "/" + line.getStartDateTime());
+        }
+        for (Job job : problem.getJobs()) {
+            problemKeys.add(job.getId() + "/" + job.getProduct().getId() + "/" + job.getDuration()
+                    + "/" + job.getMinStartTime() + "/" + job.getIdealEndTime() + "/" + job.getMaxEndTime()
+                    + "/" + job.isPinned());
+        }
+        return AssignmentJournal.fingerprint(problemKeys);
     }
 
 }
@@ -1,17 +1,46 @@
 package org.acme.foodpackaging.solver;
 
-import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
 
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
 import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintCollectors;
 import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
 import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
-import ai.timefold.solver.core.api.score.stream.Joiners;
+import ai.timefold.solver.core.api.score.stream.common.ConnectedRange;
+import ai.timefold.solver.core.api.score.stream.common.ConnectedRangeChain;
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintCollector;
 
 import org.acme.foodpackaging.domain.Job;
 
 public class FoodPackagingConstraintProvider implements ConstraintProvider {
 
+    /**
+     * Timeline of the cleaning windows of an operator, in epoch minutes.
+     */
+    private static final UniConstraintCollector<Job, ?, ConnectedRangeChain<Job, Long, Long>> CLEANING_TIMELINE =
+            ConstraintCollectors.toConnectedRanges(Job::getStartCleaningMinute, Job::getStartProductionMinute);
+
+    private static long getCleaningMinuteOverlap(ConnectedRange<Job, Long, Long> connectedJobs) {
+        // Sum the overlap of every pair of cleaning windows, like a join on overlapping windows would.
+        // Sorted by start, a window can only overlap the windows that start before it ends.
+        Job[] jobs = new Job[connectedJobs.getContainedRangeCount()];
+        int jobCount = 0;
+        for (Job job : connectedJobs) {
+            jobs[jobCount++] = job;
+        }
+        Arrays.sort(jobs, Comparator.comparingLong(Job::getStartCleaningMinute));
+        long minuteOverlap = 0L;
+        for (int i = 0; i < jobs.length; i++) {
+            long end = jobs[i].getStartProductionMinute();
+            for (int j = i + 1; j < jobs.length && jobs[j].getStartCleaningMinute() < end; j++) {
+                minuteOverlap += Math.min(end, jobs[j].getStartProductionMinute()) - jobs[j].getStartCleaningMinute();
+            }
+        }
+        return minuteOverlap;
+    }
+
     @Override
     public Constraint[] defineConstraints(ConstraintFactory factory) {
         return new Constraint[] {
@@ -31,9 +60,9 @@ public class FoodPackagingConstraintProvider implements ConstraintProvider {
 
     protected Constraint maxEndDateTime(ConstraintFactory factory) {
         return factory.forEach(Job.class)
-                .filter(job -> job.getEndDateTime() != null && job.getMaxEndTime().isBefore(job.getEndDateTime()))
+                .filter(job -> job.getEndMinute() != null && job.getMaxEndMinute() < job.getEndMinute())
                 .penalizeLong(HardMediumSoftLongScore.ONE_HARD,
-                        job -> Duration.between(job.getMaxEndTime(), job.getEndDateTime()).toMinutes())
+                        job -> job.getEndMinute() - job.getMaxEndMinute())
                 .asConstraint("Max end date time");
     }
 
@@ -43,9 +72,9 @@ public class FoodPackagingConstraintProvider implements ConstraintProvider {
 
     protected Constraint idealEndDateTime(ConstraintFactory factory) {
         return factory.forEach(Job.class)
-                .filter(job -> job.getEndDateTime() != null && job.getIdealEndTime().isBefore(job.getEndDateTime()))
+                .filter(job -> job.getEndMinute() != null && job.getIdealEndMinute() < job.getEndMinute())
                 .penalizeLong(HardMediumSoftLongScore.ONE_MEDIUM,
-                        job -> Duration.between(job.getIdealEndTime(), job.getEndDateTime()).toMinutes())
+                        job -> job.getEndMinute() - job.getIdealEndMinute())
                 .asConstraint("Ideal end date time");
     }
 
@@ -55,18 +84,18 @@ public class FoodPackagingConstraintProvider implements ConstraintProvider {
 
     // TODO Currently dwarfed by minimizeAndLoadBalanceMakeSpan in the same score level, because that squares
     protected Constraint operatorCleaningConflict(ConstraintFactory factory) {
+        // The cleaning windows of each operator are kept in a timeline sorted by start,
+        // so a window is only compared with the windows it is connected to instead of with all the jobs of the operator.
+        // A window without cleaning can't overlap for a positive duration, so it is left out of the timeline.
         return factory.forEach(Job.class)
-                .filter(job ->job.getLine() != null)
-                .join(factory.forEach(Job.class).filter(job ->job.getLine() != null),
-                        Joiners.equal(job -> job.getLine().getOperator()),
-                        Joiners.overlapping(Job::getStartCleaningDateTime, Job::getStartProductionDateTime),
-                        Joiners.lessThan(Job::getId))
-                .penalizeLong(HardMediumSoftLongScore.ONE_SOFT, (job1, job2) -> Duration.between(
-                        (job1.getStartCleaningDateTime().compareTo(job2.getStartCleaningDateTime()) > 0)
-                               ? job1.getStartCleaningDateTime() : job2.getStartCleaningDateTime(),
-                        (job1.getStartProductionDateTime().compareTo(job2.getStartProductionDateTime()) < 0)
-                                ? job1.getStartProductionDateTime() : job2.getStartProductionDateTime()
-                ).toMinutes())
+                .filter(job -> job.getLine() != null && job.getStartProductionMinute() != null
+                        && job.getStartCleaningMinute() < job.getStartProductionMinute())
+                .groupBy(job -> job.getLine().getOperator(),
+                        CLEANING_TIMELINE)
+                .flattenLast(ConnectedRangeChain::getConnectedRanges)
+                .filter((operator, connectedJobs) -> connectedJobs.hasOverlap())
+                .penalizeLong(HardMediumSoftLongScore.ONE_SOFT,
+                        (operator, connectedJobs) -> getCleaningMinuteOverlap(connectedJobs))
                 .asConstraint("Operator cleaning conflict");
     }
 
@@ -74,7 +103,7 @@ public class FoodPackagingConstraintProvider implements ConstraintProvider {
         return factory.forEach(Job.class)
                 .filter(job -> job.getLine() != null && job.getNextJob() == null)
                 .penalizeLong(HardMediumSoftLongScore.ONE_SOFT, job -> {
-                    long minutes = Duration.between(job.getLine().getStartDateTime(), job.getEndDateTime()).toMinutes();
+                    long minutes = job.getEndMinute() - job.getLine().getStartMinute();
                     return minutes * minutes;
                 })
                 .asConstraint("Minimize make span");
@@ -83,9 +112,9 @@ public class FoodPackagingConstraintProvider implements ConstraintProvider {
     // TODO Currently dwarfed by minimizeAndLoadBalanceMakeSpan in the same score level, because that squares
     protected Constraint minimizeCleaningDuration(ConstraintFactory factory) {
         return factory.forEach(Job.class)
-                .filter(job -> job.getStartProductionDateTime() != null)
+                .filter(job -> job.getStartProductionMinute() != null)
                 .penalizeLong(HardMediumSoftLongScore.ONE_SOFT, job -> job.getPriority()
-                        * Duration.between(job.getStartCleaningDateTime(), job.getStartProductionDateTime()).toMinutes())
+                        * (job.getStartProductionMinute() - job.getStartCleaningMinute()))
                 .asConstraint("Minimize cleaning duration");
     }
 
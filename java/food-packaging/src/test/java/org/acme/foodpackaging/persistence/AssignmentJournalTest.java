@@ -0,0 +1,129 @@
+package org.acme.foodpackaging.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AssignmentJournalTest {
+
+    private static final int JOURNAL_CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverSnapshotAndJournal() throws Exception {
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            journal.reset("problem", Map.of("line1", List.of("job1", "job2"), "line2", List.of()));
+            journal.write(Map.of("line1", List.of("job2"), "line2", List.of("job1")));
+            journal.write(Map.of("line1", List.of("job2", "job1"), "line2", List.of()));
+        }
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            assertThat(journal.recover("problem"))
+                    .containsOnly(Map.entry("line1", List.of("job2", "job1")), Map.entry("line2", List.of()));
+            // Appending after a recovery keeps the replayed records.
+            journal.write(Map.of("line1", List.of(), "line2", List.of("job1", "job2")));
+        }
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            assertThat(journal.recover("problem"))
+                    .containsOnly(Map.entry("line1", List.of()), Map.entry("line2", List.of("job1", "job2")));
+        }
+    }
+
+    @Test
+    void recoverAfterCompaction() throws Exception {
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 2, JOURNAL_CAPACITY)) {
+            journal.reset("problem", Map.of("line1", List.of("job1")));
+            for (int i = 2; i <= 10; i++) {
+                journal.write(Map.of("line1", List.of("job" + i)));
+            }
+        }
+        assertThat(directory).isDirectoryNotContaining("glob:**.tmp");
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 2, JOURNAL_CAPACITY)) {
+            assertThat(journal.recover("problem")).containsOnly(Map.entry("line1", List.of("job10")));
+        }
+    }
+
+    @Test
+    void ignoreOtherProblem() throws Exception {
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            journal.reset("problem", Map.of("line1", List.of("job1")));
+        }
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            assertThat(journal.recover("otherProblem")).isNull();
+        }
+    }
+
+    @Test
+    void ignoreTornRecord() throws Exception {
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            journal.reset("problem", Map.of("line1", List.of("job1")));
+            journal.write(Map.of("line1", List.of("job2")));
+            journal.write(Map.of("line1", List.of("job3")));
+        }
+        // Corrupt the payload of the last record.
+        try (FileChannel channel = FileChannel.open(directory.resolve(AssignmentJournal.JOURNAL_FILE_NAME),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, AssignmentJournal.JOURNAL_HEADER_SIZE);
+            int secondRecordPosition = AssignmentJournal.JOURNAL_HEADER_SIZE + 2 * Integer.BYTES
+                    + header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[] { 42 }), secondRecordPosition + 2 * Integer.BYTES + 1);
+        }
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            assertThat(journal.recover("problem")).containsOnly(Map.entry("line1", List.of("job2")));
+        }
+    }
+
+    @Test
+    void appendAfterIgnoringOlderJournal() throws Exception {
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            journal.reset("problem", Map.of("line1", List.of("job1")));
+            journal.write(Map.of("line1", List.of("job2")));
+        }
+        // Crash after writing a new snapshot, but before clearing the journal.
+        try (FileChannel channel = FileChannel.open(directory.resolve(AssignmentJournal.JOURNAL_FILE_NAME),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 0L), 0L);
+        }
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            assertThat(journal.recover("problem")).containsOnly(Map.entry("line1", List.of("job1")));
+            journal.write(Map.of("line1", List.of("job3")));
+        }
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 100, JOURNAL_CAPACITY)) {
+            assertThat(journal.recover("problem")).containsOnly(Map.entry("line1", List.of("job3")));
+        }
+    }
+
+    @Test
+    void markOnlyTheWrittenTailAsDirty() throws Exception {
+        try (AssignmentJournal journal = new AssignmentJournal(directory, 2, 4 * JOURNAL_CAPACITY)) {
+            journal.reset("problem", Map.of("line1", List.of("job1")));
+            assertThat(readDirtyEnd()).isEqualTo(AssignmentJournal.JOURNAL_HEADER_SIZE);
+            journal.write(Map.of("line1", List.of("job2")));
+            journal.write(Map.of("line1", List.of("job3")));
+            assertThat(readDirtyEnd()).isEqualTo(JOURNAL_CAPACITY);
+            // Compacted
+            journal.write(Map.of("line1", List.of("job4")));
+            assertThat(readDirtyEnd()).isEqualTo(AssignmentJournal.JOURNAL_HEADER_SIZE);
+        }
+    }
+
+    private int readDirtyEnd() throws Exception {
+        try (FileChannel channel = FileChannel.open(directory.resolve(AssignmentJournal.JOURNAL_FILE_NAME),
+                StandardOpenOption.READ)) {
+            ByteBuffer dirtyEnd = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(dirtyEnd, Long.BYTES);
+            return dirtyEnd.flip().getInt();
+        }
+    }
+
+}
@@ -105,6 +105,30 @@ class FoodPackagingConstraintProviderTest {
                 .penalizesBy(20L);
     }
 
+    @Test
+    void operatorCleaningConflictChain() {
+        Line line1 = new Line("1", "line1", "operator A", DAY_START_TIME);
+        Line line2 = new Line("2", "line2", "operator A", DAY_START_TIME);
+        Line line3 = new Line("3", "line3", "operator A", DAY_START_TIME);
+        Job job1 = new Job("1", "job1", PRODUCT_A_SMALL, Duration.ofMinutes(100), DAY_START_TIME, null, null, 1, false,
+                DAY_START_TIME, DAY_START_TIME.plusMinutes(30));
+        Job job2 = new Job("2", "job2", PRODUCT_A_SMALL, Duration.ofMinutes(200), DAY_START_TIME, null, null, 1, false,
+                DAY_START_TIME.plusMinutes(10), DAY_START_TIME.plusMinutes(50));
+        // Overlaps job2 only.
+        Job job3 = new Job("3", "job3", PRODUCT_A_SMALL, Duration.ofMinutes(300), DAY_START_TIME, null, null, 1, false,
+                DAY_START_TIME.plusMinutes(40), DAY_START_TIME.plusMinutes(60));
+        // Touches job3 without overlapping it.
+        Job job4 = new Job("4", "job4", PRODUCT_A_SMALL, Duration.ofMinutes(300), DAY_START_TIME, null, null, 1, false,
+                DAY_START_TIME.plusMinutes(60), DAY_START_TIME.plusMinutes(90));
+        addJobs(line1, job1);
+        addJobs(line2, job2, job4);
+        addJobs(line3, job3);
+
+        constraintVerifier.verifyThat(FoodPackagingConstraintProvider::operatorCleaningConflict)
+                .given(job1, job2, job3, job4)
+                .penalizesBy(20L + 10L);
+    }
+
     @Test
     void minimizeMakespan() {
         Line line1 = new Line("1", "line1", null, DAY_START_TIME);
@@ -1,6 +1,5 @@
 package org.acme.maintenancescheduling.domain;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -48,13 +47,9 @@ public class MaintenanceSchedule {
 
     @ValueRangeProvider
     public List<LocalDate> createStartDateList() {
-        return workCalendar.getFromDate().datesUntil(workCalendar.getToDate())
-                // Skip weekends. Does not work for holidays.
-                // Keep in sync with EndDateUpdatingVariableListener.updateEndDate().
-                // To skip holidays too, cache all working days in WorkCalendar.
-                .filter(date -> date.getDayOfWeek() != DayOfWeek.SATURDAY
-                        && date.getDayOfWeek() != DayOfWeek.SUNDAY)
-                .toList();
+        // Skip weekends and holidays.
+        // Keep in sync with EndDateUpdatingVariableListener.updateEndDate().
+        return workCalendar.getWorkingDates();
     }
 
     // ************************************************************************
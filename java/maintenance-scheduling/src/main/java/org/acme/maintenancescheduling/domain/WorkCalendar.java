@@ -1,9 +1,16 @@
 package org.acme.maintenancescheduling.domain;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class WorkCalendar {
 
     @PlanningId
@@ -11,6 +18,10 @@ public class WorkCalendar {
 
     private LocalDate fromDate; // Inclusive
     private LocalDate toDate; // Exclusive
+    private Set<LocalDate> holidays = Set.of();
+
+    // Derived from the fields above, built on first use
+    private WorkingDayIndex workingDayIndex;
 
     public WorkCalendar() {
     }
@@ -21,6 +32,11 @@ public class WorkCalendar {
         this.toDate = toDate;
     }
 
+    public WorkCalendar(String id, LocalDate fromDate, LocalDate toDate, Set<LocalDate> holidays) {
+        this(id, fromDate, toDate);
+        this.holidays = holidays;
+    }
+
     @Override
     public String toString() {
         return fromDate + " - " + toDate;
@@ -42,4 +58,87 @@ public class WorkCalendar {
         return toDate;
     }
 
+    public Set<LocalDate> getHolidays() {
+        return holidays;
+    }
+
+    // ************************************************************************
+    // Complex methods
+    // ************************************************************************
+
+    public boolean isWorkingDay(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !holidays.contains(date);
+    }
+
+    /**
+     * @return never null, the working days from {@link #getFromDate()} (inclusive) to {@link #getToDate()} (exclusive)
+     */
+    @JsonIgnore
+    public List<LocalDate> getWorkingDates() {
+        return getWorkingDayIndex().workingDates();
+    }
+
+    /**
+     * @param startDate never null
+     * @param workingDays at least 0
+     * @return never null, the date after the given number of working days from the start date,
+     *         so the first working day on or after that date if the number of working days is 0
+     */
+    public LocalDate plusWorkingDays(LocalDate startDate, int workingDays) {
+        WorkingDayIndex index = getWorkingDayIndex();
+        long offset = startDate.toEpochDay() - fromDate.toEpochDay();
+        if (offset < 0 || offset >= index.workingDayOrdinals().length) {
+            return walkWorkingDays(startDate, workingDays);
+        }
+        int endOrdinal = index.workingDayOrdinals()[(int) offset] + workingDays;
+        List<LocalDate> workingDates = index.workingDates();
+        if (endOrdinal < workingDates.size()) {
+            return workingDates.get(endOrdinal);
+        }
+        // All the working days before the to date are indexed.
+        return walkWorkingDays(toDate, endOrdinal - workingDates.size());
+    }
+
+    private LocalDate walkWorkingDays(LocalDate startDate, int workingDays) {
+        LocalDate date = startDate;
+        int remainingWorkingDays = workingDays;
+        while (!isWorkingDay(date) || remainingWorkingDays > 0) {
+            if (isWorkingDay(date)) {
+                remainingWorkingDays--;
+            }
+            date = date.plusDays(1);
+        }
+        return date;
+    }
+
+    private WorkingDayIndex getWorkingDayIndex() {
+        // Racing threads build the same index, so no synchronization is needed.
+        WorkingDayIndex index = workingDayIndex;
+        if (index == null) {
+            int dayCount = (int) (toDate.toEpochDay() - fromDate.toEpochDay());
+            // One more ordinal for the to date, so an end date on the to date is found in the index too.
+            int[] workingDayOrdinals = new int[dayCount + 1];
+            List<LocalDate> workingDates = new ArrayList<>(dayCount);
+            for (int offset = 0; offset < dayCount; offset++) {
+                workingDayOrdinals[offset] = workingDates.size();
+                LocalDate date = fromDate.plusDays(offset);
+                if (isWorkingDay(date)) {
+                    workingDates.add(date);
+                }
+            }
+            workingDayOrdinals[dayCount] = workingDates.size();
+            index = new WorkingDayIndex(workingDayOrdinals, Collections.unmodifiableList(workingDates));
+            workingDayIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * @param workingDayOrdinals the number of working days before the date, indexed by the days since the from date
+     * @param workingDates the working days, indexed by their ordinal
+     */
+    private record WorkingDayIndex(int[] workingDayOrdinals, List<LocalDate> workingDates) {
+    }
+
 }
@@ -4,6 +4,7 @@ import java.time.LocalDate;
 
 import org.acme.maintenancescheduling.domain.Job;
 import org.acme.maintenancescheduling.domain.MaintenanceSchedule;
+import org.acme.maintenancescheduling.domain.WorkCalendar;
 import ai.timefold.solver.core.api.domain.variable.VariableListener;
 import ai.timefold.solver.core.api.score.director.ScoreDirector;
 
@@ -40,18 +41,27 @@ public class EndDateUpdatingVariableListener implements VariableListener<Mainten
     }
 
     protected void updateEndDate(ScoreDirector<MaintenanceSchedule> scoreDirector, Job job) {
+        WorkCalendar workCalendar = scoreDirector.getWorkingSolution().getWorkCalendar();
         scoreDirector.beforeVariableChanged(job, "endDate");
-        job.setEndDate(calculateEndDate(job.getStartDate(), job.getDurationInDays()));
+        job.setEndDate(calculateEndDate(workCalendar, job.getStartDate(), job.getDurationInDays()));
         scoreDirector.afterVariableChanged(job, "endDate");
     }
 
-    public static LocalDate calculateEndDate(LocalDate startDate, int durationInDays) {
+    public static LocalDate calculateEndDate(WorkCalendar workCalendar, LocalDate startDate, int durationInDays) {
         if (startDate == null) {
             return null;
         } else {
-            // Skip weekends. Does not work for holidays.
-            // To skip holidays too, cache all working days in scoreDirector.getWorkingSolution().getWorkCalendar().
+            // Skips weekends and holidays.
             // Keep in sync with MaintenanceSchedule.createStartDateList().
+            return workCalendar.plusWorkingDays(startDate, durationInDays);
+        }
+    }
+
+    public static LocalDate calculateEndDate(LocalDate startDate, int durationInDays) {
+        if (startDate == null) {
+            return null;
+        } else {
+            // Skip weekends only, for a job outside a schedule with a work calendar.
             int weekendPadding = 2 * ((durationInDays + (startDate.getDayOfWeek().getValue() - 1)) / 5);
             return startDate.plusDays(durationInDays + weekendPadding);
         }
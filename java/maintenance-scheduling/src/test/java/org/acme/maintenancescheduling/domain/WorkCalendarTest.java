@@ -0,0 +1,56 @@
+package org.acme.maintenancescheduling.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.acme.maintenancescheduling.solver.EndDateUpdatingVariableListener;
+import org.junit.jupiter.api.Test;
+
+class WorkCalendarTest {
+
+    // A Monday
+    private static final LocalDate FROM_DATE = LocalDate.of(2021, 2, 1);
+    private static final LocalDate TO_DATE = FROM_DATE.plusWeeks(2);
+
+    @Test
+    void plusWorkingDaysSkipsWeekends() {
+        WorkCalendar workCalendar = new WorkCalendar("1", FROM_DATE, TO_DATE);
+        // Also start before and after the calendar, and end beyond it.
+        for (LocalDate startDate = FROM_DATE.minusWeeks(1); startDate.isBefore(TO_DATE.plusWeeks(1));
+                startDate = startDate.plusDays(1)) {
+            if (!workCalendar.isWorkingDay(startDate)) {
+                continue;
+            }
+            for (int workingDays = 0; workingDays <= 20; workingDays++) {
+                assertThat(workCalendar.plusWorkingDays(startDate, workingDays))
+                        .as("%s plus %d working days", startDate, workingDays)
+                        .isEqualTo(EndDateUpdatingVariableListener.calculateEndDate(startDate, workingDays));
+            }
+        }
+    }
+
+    @Test
+    void plusWorkingDaysSkipsHolidays() {
+        LocalDate wednesday = FROM_DATE.plusDays(2);
+        LocalDate nextMonday = FROM_DATE.plusWeeks(1);
+        WorkCalendar workCalendar = new WorkCalendar("1", FROM_DATE, TO_DATE, Set.of(wednesday, nextMonday));
+        assertThat(workCalendar.plusWorkingDays(FROM_DATE, 2)).isEqualTo(FROM_DATE.plusDays(3));
+        assertThat(workCalendar.plusWorkingDays(FROM_DATE, 4)).isEqualTo(nextMonday.plusDays(1));
+        // Starting on a holiday starts on the next working day.
+        assertThat(workCalendar.plusWorkingDays(wednesday, 1)).isEqualTo(FROM_DATE.plusDays(4));
+        assertThat(workCalendar.plusWorkingDays(nextMonday, 5)).isEqualTo(TO_DATE.plusDays(1));
+    }
+
+    @Test
+    void workingDates() {
+        LocalDate wednesday = FROM_DATE.plusDays(2);
+        WorkCalendar workCalendar = new WorkCalendar("1", FROM_DATE, TO_DATE, Set.of(wednesday));
+        assertThat(workCalendar.getWorkingDates())
+                .hasSize(9)
+                .doesNotContain(wednesday, FROM_DATE.plusDays(5), FROM_DATE.plusDays(6))
+                .isSorted();
+    }
+
+}
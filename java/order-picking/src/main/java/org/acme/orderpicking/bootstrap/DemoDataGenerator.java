@@ -203,7 +203,7 @@ public class DemoDataGenerator {
         List<Trolley> trolleys = buildTrolleys(TROLLEYS_COUNT, BUCKET_COUNT, BUCKET_CAPACITY, START_LOCATION);
         List<Order> orders = buildOrders(ORDERS_COUNT);
         List<TrolleyStep> trolleySteps = buildTrolleySteps(orders);
-        orderPickingRepository.save(new OrderPickingSolution(trolleys, trolleySteps));
+        orderPickingRepository.restore(new OrderPickingSolution(trolleys, trolleySteps));
     }
 
     public List<Order> buildOrders(int size) {
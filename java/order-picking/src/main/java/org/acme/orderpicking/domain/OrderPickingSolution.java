@@ -5,7 +5,6 @@ import java.util.List;
 import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
 import ai.timefold.solver.core.api.domain.solution.PlanningSolution;
-import ai.timefold.solver.core.api.domain.solution.ProblemFactCollectionProperty;
 import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 
@@ -17,12 +16,11 @@ public class OrderPickingSolution {
      * 
      * @see TrolleyStep for more information about the model constructed by the Solver.
      */
-    @ValueRangeProvider
-    @ProblemFactCollectionProperty
+    @PlanningEntityCollectionProperty
     private List<Trolley> trolleys;
 
     /**
-     * Defines the available TrolleySteps.
+     * Defines the TrolleySteps to assign to the Trolleys.
      * 
      * @see TrolleyStep for more information about the model constructed by the Solver.
      */
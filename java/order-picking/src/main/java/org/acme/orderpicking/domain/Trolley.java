@@ -1,13 +1,29 @@
 package org.acme.orderpicking.domain;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.solution.cloner.DeepPlanningClone;
+import ai.timefold.solver.core.api.domain.variable.PlanningListVariable;
+import ai.timefold.solver.core.api.domain.variable.ShadowVariable;
+
+import org.acme.orderpicking.solver.RequiredBucketCountVariableListener;
 
 /**
  * Represents the trolley that will be filled with the order items.
- * 
+ *
  * @see TrolleyStep for more information about the model constructed by the Solver.
  */
-public class Trolley extends TrolleyOrTrolleyStep {
+@PlanningEntity
+public class Trolley implements WarehouseLocationAware {
+
+    public static final String STEPS = "steps";
+    public static final String REQUIRED_BUCKET_COUNT = "requiredBucketCount";
 
     @PlanningId
     private String id;
@@ -15,6 +31,30 @@ public class Trolley extends TrolleyOrTrolleyStep {
     private int bucketCapacity;
     private WarehouseLocation location;
 
+    /**
+     * Planning variable: changes during planning, between score calculations.
+     * <p>
+     * The path of the trolley, in the order the steps are visited.
+     */
+    @PlanningListVariable
+    private List<TrolleyStep> steps = new ArrayList<>();
+
+    /**
+     * Shadow variable: the number of buckets needed to hold all the order items picked along the path,
+     * considering that buckets are not shared between orders.
+     */
+    @JsonIgnore
+    @ShadowVariable(variableListenerClass = RequiredBucketCountVariableListener.class, sourceVariableName = STEPS)
+    private Integer requiredBucketCount = 0;
+
+    /**
+     * The total volume picked along the path for every order,
+     * so the required bucket count is updated in constant time per added or removed step.
+     */
+    @JsonIgnore
+    @DeepPlanningClone
+    private Map<Order, Integer> orderVolumeMap = new HashMap<>();
+
     public Trolley() {
         //marshalling constructor
     }
@@ -58,4 +98,55 @@ public class Trolley extends TrolleyOrTrolleyStep {
     public void setLocation(WarehouseLocation location) {
         this.location = location;
     }
+
+    public List<TrolleyStep> getSteps() {
+        return steps;
+    }
+
+    public void setSteps(List<TrolleyStep> steps) {
+        this.steps = steps;
+    }
+
+    public Integer getRequiredBucketCount() {
+        return requiredBucketCount;
+    }
+
+    public void setRequiredBucketCount(Integer requiredBucketCount) {
+        this.requiredBucketCount = requiredBucketCount;
+    }
+
+    // ************************************************************************
+    // Complex methods
+    // ************************************************************************
+
+    /**
+     * Account for an order item picked along the path and update the {@link #getRequiredBucketCount()}.
+     */
+    public void addOrderItem(OrderItem orderItem) {
+        updateOrderVolume(orderItem.getOrder(), orderItem.getVolume());
+    }
+
+    /**
+     * Stop accounting for an order item no longer picked along the path and update the
+     * {@link #getRequiredBucketCount()}.
+     */
+    public void removeOrderItem(OrderItem orderItem) {
+        updateOrderVolume(orderItem.getOrder(), -orderItem.getVolume());
+    }
+
+    private void updateOrderVolume(Order order, int volumeDelta) {
+        int oldVolume = orderVolumeMap.getOrDefault(order, 0);
+        int newVolume = oldVolume + volumeDelta;
+        if (newVolume == 0) {
+            orderVolumeMap.remove(order);
+        } else {
+            orderVolumeMap.put(order, newVolume);
+        }
+        requiredBucketCount += calculateOrderRequiredBuckets(newVolume) - calculateOrderRequiredBuckets(oldVolume);
+    }
+
+    private int calculateOrderRequiredBuckets(int orderVolume) {
+        return (orderVolume + (bucketCapacity - 1)) / bucketCapacity;
+    }
+
 }
@@ -3,56 +3,46 @@ package org.acme.orderpicking.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
-import ai.timefold.solver.core.api.domain.variable.AnchorShadowVariable;
-import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
-import ai.timefold.solver.core.api.domain.variable.PlanningVariableGraphType;
+import ai.timefold.solver.core.api.domain.variable.InverseRelationShadowVariable;
+import ai.timefold.solver.core.api.domain.variable.NextElementShadowVariable;
+import ai.timefold.solver.core.api.domain.variable.PreviousElementShadowVariable;
 
 /**
  * Represents a "stop" in a Trolley's path where an order item is to be picked.
  * <p>
- * The TrolleyStep is the only PlanningEntity entity that will be changed during the problem solving, and the
- * {@link TrolleyStep#previousElement} is the only PlanningVariable defined.
+ * The {@link Trolley#getSteps()} list is the only PlanningVariable defined, and the Solver assigns every TrolleyStep
+ * to exactly one position of one Trolley's list, creating a structure like the following:
  * <p>
- * By using the CHAINED graph modelling strategy, combined with shadow variables {@link TrolleyStep#trolley} and
- * {@link TrolleyOrTrolleyStep#nextElement}, the Solver will create a structure like the following:
+ * Trolley1 -> [TrolleyStepA, TrolleyStepB, TrolleyStepC]
  * <p>
- * Trolley1 <-> TrolleyStepA <-> TrolleyStepB <-> TrolleyStepC -> null
+ * Trolley2 -> [TrolleyStepD, TrolleyStepE]
  * <p>
- * Trolley2 <-> TrolleyStepD <-> TrolleyStepE -> null
- * <p>
- * Where the initial element of each the chain, the Trolley, is known as the "anchor" and will always have a reference
- * to the next element, a TrolleyStep. (a null value, represents that this Trolley was not used yet or was left free).
- * <p>
- * The intermediary elements, the TrolleySteps, when assigned will always have a reference to "anchor", the previous
- * element and the next element. (a null value on the next element, indicates that current step is currently the last
- * element).
+ * Where the shadow variables {@link TrolleyStep#trolley}, {@link TrolleyStep#previousStep} and
+ * {@link TrolleyStep#nextStep} give every assigned TrolleyStep a reference to its Trolley and its neighbors in the
+ * path. (a null value on the previous step indicates that the current step is the first element, and a null value on
+ * the next step indicates that the current step is the last element).
  */
 @PlanningEntity
-public class TrolleyStep extends TrolleyOrTrolleyStep {
+public class TrolleyStep implements WarehouseLocationAware {
 
     @PlanningId
     private String id;
     private OrderItem orderItem;
 
     /**
-     * Planning variable: changes during planning, between score calculations.
-     * <p>
-     * The Trolleys for building the chains are taken from the value range provider
-     * {@link OrderPickingSolution#getTrolleys()}.
-     * The intermediary elements, the TrolleySteps, for building the chains are taken from the value range provider
-     * {@link OrderPickingSolution#getTrolleySteps()}.
+     * Shadow variable: Is automatically set by the Solver to the Trolley that has this step in its path.
      */
     @JsonIgnore
-    @PlanningVariable(graphType = PlanningVariableGraphType.CHAINED)
-    private TrolleyOrTrolleyStep previousElement;
+    @InverseRelationShadowVariable(sourceVariableName = Trolley.STEPS)
+    private Trolley trolley;
 
-    /**
-     * Shadow variable: Is automatically set by the Solver and facilitates that all the trolley steps can have a
-     * reference to the chain "anchor", the Trolley.
-     */
     @JsonIgnore
-    @AnchorShadowVariable(sourceVariableName = PREVIOUS_ELEMENT)
-    private Trolley trolley;
+    @PreviousElementShadowVariable(sourceVariableName = Trolley.STEPS)
+    private TrolleyStep previousStep;
+
+    @JsonIgnore
+    @NextElementShadowVariable(sourceVariableName = Trolley.STEPS)
+    private TrolleyStep nextStep;
 
     public TrolleyStep() {
         //marshaling constructor.
@@ -84,14 +74,6 @@ public class TrolleyStep extends TrolleyOrTrolleyStep {
         return orderItem.getProduct().getLocation();
     }
 
-    public TrolleyOrTrolleyStep getPreviousElement() {
-        return previousElement;
-    }
-
-    public void setPreviousElement(TrolleyOrTrolleyStep previousElement) {
-        this.previousElement = previousElement;
-    }
-
     public Trolley getTrolley() {
         return trolley;
     }
@@ -100,8 +82,33 @@ public class TrolleyStep extends TrolleyOrTrolleyStep {
         this.trolley = trolley;
     }
 
+    public TrolleyStep getPreviousStep() {
+        return previousStep;
+    }
+
+    public void setPreviousStep(TrolleyStep previousStep) {
+        this.previousStep = previousStep;
+    }
+
+    public TrolleyStep getNextStep() {
+        return nextStep;
+    }
+
+    public void setNextStep(TrolleyStep nextStep) {
+        this.nextStep = nextStep;
+    }
+
+    /**
+     * @return the location the trolley comes from: the previous step, or the trolley location for the first step
+     */
+    @JsonIgnore
+    public WarehouseLocation getPreviousLocation() {
+        return previousStep != null ? previousStep.getLocation() : trolley.getLocation();
+    }
+
+    @JsonIgnore
     public boolean isLast() {
-        return nextElement == null;
+        return nextStep == null;
     }
 
     /**
@@ -1,6 +1,8 @@
 package org.acme.orderpicking.domain;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static java.lang.Math.abs;
@@ -100,9 +102,22 @@ public class Warehouse {
      */
     private static final int SHELVING_PADDING = 3;
 
-    private static final Map<String, Shelving> SHELVING_MAP = new HashMap<>();
+    /**
+     * The number of rows a location on a shelving side can be at: the shelving rows,
+     * plus the positions in the aisle up to the next shelving.
+     */
+    private static final int LOCATION_ROW_COUNT = SHELVING_HEIGHT + SHELVING_PADDING;
+
+    private static final List<Shelving> SHELVINGS = new ArrayList<>();
+    private static final Map<String, Integer> SHELVING_INDEX_MAP = new HashMap<>();
+
+    /**
+     * The distance between every pair of locations, by {@link WarehouseLocation#getIndex() location index}.
+     */
+    private static final int[][] DISTANCE_TABLE;
 
     private static final String SHELVING_NOT_FOUND_ERROR = "Shelving: %s was not found in current Warehouse structure.";
+    private static final String ROW_NOT_FOUND_ERROR = "Row: %d was not found in Shelving: %s.";
 
     static {
         int shelvingX = 0;
@@ -113,11 +128,20 @@ public class Warehouse {
             shelvingY = 0;
             for (Row row : Row.values()) {
                 shelving = new Shelving(newShelvingId(col, row), shelvingX, shelvingY);
-                SHELVING_MAP.put(shelving.getId(), shelving);
+                SHELVING_INDEX_MAP.put(shelving.getId(), SHELVINGS.size());
+                SHELVINGS.add(shelving);
                 shelvingY = shelvingY + SHELVING_HEIGHT + SHELVING_PADDING;
             }
             shelvingX = shelvingX + SHELVING_WIDTH + SHELVING_PADDING;
         }
+
+        int locationCount = SHELVINGS.size() * Shelving.Side.values().length * LOCATION_ROW_COUNT;
+        DISTANCE_TABLE = new int[locationCount][locationCount];
+        for (int startIndex = 0; startIndex < locationCount; startIndex++) {
+            for (int endIndex = 0; endIndex < locationCount; endIndex++) {
+                DISTANCE_TABLE[startIndex][endIndex] = computeDistance(startIndex, endIndex);
+            }
+        }
     }
 
     private Warehouse() {
@@ -127,31 +151,49 @@ public class Warehouse {
      * Calculates the distance in meters between two locations considering the warehouse structure.
      */
     public static int calculateDistance(WarehouseLocation start, WarehouseLocation end) {
-        final Shelving startShelving = SHELVING_MAP.get(start.getShelvingId());
-        if (startShelving == null) {
-            throw new IndexOutOfBoundsException(String.format(SHELVING_NOT_FOUND_ERROR, start.getShelvingId()));
+        return DISTANCE_TABLE[start.getIndex()][end.getIndex()];
+    }
+
+    /**
+     * Calculates the compact index of a location, which identifies it in the precomputed distance table.
+     *
+     * @throws IndexOutOfBoundsException if the location is not part of the current warehouse structure
+     */
+    public static int calculateLocationIndex(String shelvingId, Shelving.Side side, int row) {
+        final Integer shelvingIndex = SHELVING_INDEX_MAP.get(shelvingId);
+        if (shelvingIndex == null) {
+            throw new IndexOutOfBoundsException(String.format(SHELVING_NOT_FOUND_ERROR, shelvingId));
         }
-        final Shelving endShelving = SHELVING_MAP.get(end.getShelvingId());
-        if (endShelving == null) {
-            throw new IndexOutOfBoundsException(String.format(SHELVING_NOT_FOUND_ERROR, end.getShelvingId()));
+        if (row < 0 || row >= LOCATION_ROW_COUNT) {
+            throw new IndexOutOfBoundsException(String.format(ROW_NOT_FOUND_ERROR, row, shelvingId));
         }
+        return (shelvingIndex * Shelving.Side.values().length + side.ordinal()) * LOCATION_ROW_COUNT + row;
+    }
+
+    private static int computeDistance(int startIndex, int endIndex) {
+        final Shelving startShelving = getShelving(startIndex);
+        final Shelving.Side startSide = getSide(startIndex);
+        final int startRow = getRow(startIndex);
+        final Shelving endShelving = getShelving(endIndex);
+        final Shelving.Side endSide = getSide(endIndex);
+        final int endRow = getRow(endIndex);
         int deltaX = 0;
         int deltaY;
 
-        final int startX = getAbsoluteX(startShelving, start);
-        final int startY = getAbsoluteY(startShelving, start);
-        final int endX = getAbsoluteX(endShelving, end);
-        final int endY = getAbsoluteY(endShelving, end);
+        final int startX = getAbsoluteX(startShelving, startSide);
+        final int startY = getAbsoluteY(startShelving, startRow);
+        final int endX = getAbsoluteX(endShelving, endSide);
+        final int endY = getAbsoluteY(endShelving, endRow);
 
         if (startShelving == endShelving) {
             //same shelving
-            if (start.getSide() == end.getSide()) {
+            if (startSide == endSide) {
                 //same side
                 deltaY = abs(startY - endY);
             } else {
                 //different side, calculate shortest walk.
                 deltaX = SHELVING_WIDTH;
-                deltaY = calculateBestYDistanceInShelvingRow(start.getRow(), end.getRow());
+                deltaY = calculateBestYDistanceInShelvingRow(startRow, endRow);
             }
         } else if (startShelving.getY() == endShelving.getY()) {
             //distinct shelvings but on the same warehouse row
@@ -162,7 +204,7 @@ public class Warehouse {
             } else {
                 //any other combination of shelvings but in the same warehouse row
                 deltaX = abs(startX - endX);
-                deltaY = calculateBestYDistanceInShelvingRow(start.getRow(), end.getRow());
+                deltaY = calculateBestYDistanceInShelvingRow(startRow, endRow);
             }
         } else {
             //shelvings on different warehouse rows
@@ -175,11 +217,9 @@ public class Warehouse {
     public static int calculateDistanceToTravel(Trolley trolley) {
         int distance = 0;
         WarehouseLocation previousLocation = trolley.getLocation();
-        TrolleyStep nextElement = trolley.getNextElement();
-        while (nextElement != null) {
-            distance += calculateDistance(previousLocation, nextElement.getLocation());
-            previousLocation = nextElement.getLocation();
-            nextElement = nextElement.getNextElement();
+        for (TrolleyStep step : trolley.getSteps()) {
+            distance += calculateDistance(previousLocation, step.getLocation());
+            previousLocation = step.getLocation();
         }
         distance += calculateDistance(previousLocation, trolley.getLocation());
         return distance;
@@ -191,12 +231,24 @@ public class Warehouse {
         return Math.min(northDirectionDistance, southDirectionDistance);
     }
 
+    private static Shelving getShelving(int locationIndex) {
+        return SHELVINGS.get(locationIndex / (Shelving.Side.values().length * LOCATION_ROW_COUNT));
+    }
+
+    private static Shelving.Side getSide(int locationIndex) {
+        return Shelving.Side.values()[(locationIndex / LOCATION_ROW_COUNT) % Shelving.Side.values().length];
+    }
+
+    private static int getRow(int locationIndex) {
+        return locationIndex % LOCATION_ROW_COUNT;
+    }
+
     /**
      * Calculates the absolute X position of a location considering the warehouse structure and the shelving where it's
      * contained.
      */
-    private static int getAbsoluteX(Shelving shelving, WarehouseLocation location) {
-        if (location.getSide() == Shelving.Side.LEFT) {
+    private static int getAbsoluteX(Shelving shelving, Shelving.Side side) {
+        if (side == Shelving.Side.LEFT) {
             return shelving.getX();
         } else {
             return shelving.getX() + SHELVING_WIDTH;
@@ -207,7 +259,7 @@ public class Warehouse {
      * Calculates the absolute Y position of a location considering the warehouse structure and the shelving where it's
      * contained.
      */
-    private static int getAbsoluteY(Shelving shelving, WarehouseLocation location) {
-        return shelving.getY() + location.getRow();
+    private static int getAbsoluteY(Shelving shelving, int row) {
+        return shelving.getY() + row;
     }
-}
\ No newline at end of file
+}
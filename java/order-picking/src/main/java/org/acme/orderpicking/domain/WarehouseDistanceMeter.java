@@ -0,0 +1,11 @@
+package org.acme.orderpicking.domain;
+
+import ai.timefold.solver.core.impl.heuristic.selector.common.nearby.NearbyDistanceMeter;
+
+public class WarehouseDistanceMeter implements NearbyDistanceMeter<TrolleyStep, WarehouseLocationAware> {
+
+    @Override
+    public double getNearbyDistance(TrolleyStep origin, WarehouseLocationAware destination) {
+        return Warehouse.calculateDistance(origin.getLocation(), destination.getLocation());
+    }
+}
@@ -1,5 +1,7 @@
 package org.acme.orderpicking.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Represents a location in the warehouse where a product can be stored. In the context of the order picking problem
  * the warehouse is modeled as set of shelvings. For picking a particular product the employees walks to the indicated
@@ -13,6 +15,8 @@ public class WarehouseLocation {
     private String shelvingId;
     private Shelving.Side side;
     private int row;
+    // Calculated on first use, because the marshalling constructor sets the fields one by one.
+    private int index = -1;
 
     public WarehouseLocation() {
         //marshalling constructor
@@ -30,6 +34,7 @@ public class WarehouseLocation {
 
     public void setShelvingId(String shelvingId) {
         this.shelvingId = shelvingId;
+        this.index = -1;
     }
 
     public Shelving.Side getSide() {
@@ -38,6 +43,7 @@ public class WarehouseLocation {
 
     public void setSide(Shelving.Side side) {
         this.side = side;
+        this.index = -1;
     }
 
     public int getRow() {
@@ -46,6 +52,18 @@ public class WarehouseLocation {
 
     public void setRow(int row) {
         this.row = row;
+        this.index = -1;
+    }
+
+    /**
+     * @return the compact index of this location in the {@link Warehouse} distance table
+     */
+    @JsonIgnore
+    public int getIndex() {
+        if (index < 0) {
+            index = Warehouse.calculateLocationIndex(shelvingId, side, row);
+        }
+        return index;
     }
 
     @Override
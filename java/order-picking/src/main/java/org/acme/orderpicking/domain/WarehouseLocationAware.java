@@ -0,0 +1,6 @@
+package org.acme.orderpicking.domain;
+
+public interface WarehouseLocationAware {
+
+    WarehouseLocation getLocation();
+}
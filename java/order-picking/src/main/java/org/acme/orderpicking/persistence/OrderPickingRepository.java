@@ -1,12 +1,70 @@
 package org.acme.orderpicking.persistence;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
 
 import org.acme.orderpicking.domain.OrderPickingSolution;
+import org.acme.orderpicking.domain.Trolley;
+import org.acme.orderpicking.domain.TrolleyStep;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps the solution in memory.
+ * <p>
+ * If a persistence directory is configured, the trolley steps of every trolley are also persisted
+ * in an {@link AssignmentJournal}, so a restarted instance resumes from the last best solution
+ * instead of the initial problem.
+ */
 @ApplicationScoped
 public class OrderPickingRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderPickingRepository.class);
+
+    @ConfigProperty(name = "order-picking.persistence.directory")
+    Optional<Path> persistenceDirectory;
+    @ConfigProperty(name = "order-picking.persistence.compaction-threshold", defaultValue = "1000")
+    int compactionThreshold;
+
+    @Inject
+    SolutionManager<OrderPickingSolution, HardSoftLongScore> solutionManager;
+
     private OrderPickingSolution orderPickingSolution;
+    private AssignmentJournal journal;
+
+    @PostConstruct
+    void openJournal() {
+        journal = persistenceDirectory
+                .map(directory -> new AssignmentJournal(directory, compactionThreshold,
+                        AssignmentJournal.DEFAULT_JOURNAL_CAPACITY))
+                .orElse(null);
+    }
+
+    @PreDestroy
+    void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
 
     public OrderPickingSolution find() {
         return orderPickingSolution;
@@ -14,5 +72,84 @@ public class OrderPickingRepository {
 
     public void save(OrderPickingSolution orderPickingSolution) {
         this.orderPickingSolution = orderPickingSolution;
+        if (journal != null) {
+            try {
+                journal.write(toAssignment(orderPickingSolution));
+            } catch (UncheckedIOException e) {
+                LOGGER.warn("Failed persisting the solution, keeping it in memory only.", e);
+            }
+        }
+    }
+
+    /**
+     * Store the initial problem.
+     * If the persisted trolley steps of every trolley belong to that same problem, they are restored onto it first.
+     *
+     * @param problem never null
+     */
+    public void restore(OrderPickingSolution problem) {
+        if (journal != null) {
+            String fingerprint = fingerprint(problem);
+            Map<String, List<String>> assignment = journal.recover(fingerprint);
+            if (assignment != null && applyAssignment(problem, assignment)) {
+                solutionManager.update(problem);
+                LOGGER.info("Restored the persisted solution with score ({}).", problem.getScore());
+            } else {
+                journal.reset(fingerprint, toAssignment(problem));
+            }
+        }
+        this.orderPickingSolution = problem;
+    }
+
+    // ************************************************************************
+    // Assignment
+    // ************************************************************************
+
+    private static Map<String, List<String>> toAssignment(OrderPickingSolution solution) {
+        Map<String, List<String>> assignment = new LinkedHashMap<>(solution.getTrolleys().size());
+        for (Trolley trolley : solution.getTrolleys()) {
+            assignment.put(trolley.getId(), trolley.getSteps().stream().map(TrolleyStep::getId).toList());
+        }
+        return assignment;
+    }
+
+    private static boolean applyAssignment(OrderPickingSolution problem, Map<String, List<String>> assignment) {
+        Map<String, TrolleyStep> idToTrolleyStep = problem.getTrolleySteps().stream()
+                .collect(Collectors.toMap(TrolleyStep::getId, Function.identity()));
+        Map<Trolley, List<TrolleyStep>> trolleyToSteps = new LinkedHashMap<>(problem.getTrolleys().size());
+        Set<String> assignedTrolleyStepIds = new HashSet<>();
+        for (Trolley trolley : problem.getTrolleys()) {
+            List<String> trolleyStepIds = assignment.getOrDefault(trolley.getId(), List.of());
+            List<TrolleyStep> steps = new ArrayList<>(trolleyStepIds.size());
+            for (String trolleyStepId : trolleyStepIds) {
+                TrolleyStep trolleyStep = idToTrolleyStep.get(trolleyStepId);
+                if (trolleyStep == null || !assignedTrolleyStepIds.add(trolleyStepId)) {
+                    LOGGER.warn("Ignoring the persisted solution with an unknown or duplicate trolley step ({}).",
+                            trolleyStepId);
+                    return false;
+                }
+                steps.add(trolleyStep);
+            }
+            trolleyToSteps.put(trolley, steps);
+        }
+        // The shadow variables are updated afterwards by the SolutionManager.
+        trolleyToSteps.forEach((trolley, steps) -> {
+            trolley.getSteps().clear();
+            trolley.getSteps().addAll(steps);
+        });
+        return true;
+    }
+
+    private static String fingerprint(OrderPickingSolution problem) {
+        List<String> problemKeys = new ArrayList<>();
+        for (Trolley trolley : problem.getTrolleys()) {
+            problemKeys.add(trolley.getId() + "/" + trolley.getBucketCount() + "/" + trolley.getBucketCapacity()
+                    + "/" + trolley.getLocation());
+        }
+        for (TrolleyStep trolleyStep : problem.getTrolleySteps()) {
+            problemKeys.add(trolleyStep.getId() + "/" + trolleyStep.getOrderItem().getProduct().getId()
+                    + "/" + trolleyStep.getLocation());
+        }
+        return AssignmentJournal.fingerprint(problemKeys);
     }
 }
@@ -1,5 +1,6 @@
 package org.acme.orderpicking.solver;
 
+import org.acme.orderpicking.domain.Trolley;
 import org.acme.orderpicking.domain.TrolleyStep;
 import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 import ai.timefold.solver.core.api.score.stream.Constraint;
@@ -8,7 +9,6 @@ import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
 
 import static org.acme.orderpicking.domain.Warehouse.calculateDistance;
 import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.countDistinctLong;
-import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.sum;
 
 /**
  * Constraint definitions for solving the order picking problem.
@@ -32,25 +32,16 @@ public class OrderPickingConstraintProvider implements ConstraintProvider {
     /**
      * Ensure that a Trolley has a sufficient number of buckets for holding all elements picked along the path and
      * consider that buckets are not shared between orders.
+     *
+     * @see Trolley#getRequiredBucketCount() for the incremental accounting of the required buckets.
      */
     Constraint requiredNumberOfBuckets(ConstraintFactory constraintFactory) {
         return constraintFactory
-                .forEach(TrolleyStep.class)
-                //raw total volume per order
-                .groupBy(trolleyStep -> trolleyStep.getTrolley(),
-                        trolleyStep -> trolleyStep.getOrderItem().getOrder(),
-                        sum(trolleyStep -> trolleyStep.getOrderItem().getVolume()))
-                //required buckets per order
-                .groupBy((trolley, order, orderTotalVolume) -> trolley,
-                        (trolley, order, orderTotalVolume) -> order,
-                        sum((trolley, order, orderTotalVolume) -> calculateOrderRequiredBuckets(orderTotalVolume, trolley.getBucketCapacity())))
-                //required buckets per trolley
-                .groupBy((trolley, order, orderTotalBuckets) -> trolley,
-                        sum((trolley, order, orderTotalBuckets) -> orderTotalBuckets))
+                .forEach(Trolley.class)
                 //penalization if the trolley don't have enough buckets to hold the orders
-                .filter((trolley, trolleyTotalBuckets) -> trolley.getBucketCount() < trolleyTotalBuckets)
+                .filter(trolley -> trolley.getBucketCount() < trolley.getRequiredBucketCount())
                 .penalize(HardSoftLongScore.ONE_HARD,
-                        (trolley, trolleyTotalBuckets) -> trolleyTotalBuckets - trolley.getBucketCount())
+                        trolley -> trolley.getRequiredBucketCount() - trolley.getBucketCount())
                 .asConstraint("Required number of buckets");
     }
 
@@ -68,19 +59,19 @@ public class OrderPickingConstraintProvider implements ConstraintProvider {
 
     /**
      * Minimize the distance travelled by the trolley by ensuring that the distance with the previous element in the
-     * chain is as short as possible.
+     * path, or the trolley location for the first step, is as short as possible.
      * 
      * @see TrolleyStep for more information about the model constructed by the Solver.
      */
     Constraint minimizeDistanceFromPreviousTrolleyStep(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(TrolleyStep.class)
                 .penalizeLong(HardSoftLongScore.ONE_SOFT,
-                        trolleyStep -> calculateDistance(trolleyStep.getPreviousElement().getLocation(), trolleyStep.getLocation()))
+                        trolleyStep -> calculateDistance(trolleyStep.getPreviousLocation(), trolleyStep.getLocation()))
                 .asConstraint("Minimize the distance from the previous trolley step");
     }
 
     /**
-     * Minimize the distance travelled by the trolley by ensuring that the distance of the last element in the chain
+     * Minimize the distance travelled by the trolley by ensuring that the distance of the last element in the path
      * with the return point (the Trolley location) is as short as possible.
      *
      * @see TrolleyStep for more information about the model constructed by the Solver.
@@ -92,8 +83,4 @@ public class OrderPickingConstraintProvider implements ConstraintProvider {
                         trolleyStep -> calculateDistance(trolleyStep.getLocation(), trolleyStep.getTrolley().getLocation()))
                 .asConstraint("Minimize the distance from last trolley step to the path origin");
     }
-
-    private int calculateOrderRequiredBuckets(int orderVolume, int bucketVolume) {
-        return (orderVolume + (bucketVolume - 1)) / bucketVolume;
-    }
 }
@@ -0,0 +1,68 @@
+package org.acme.orderpicking.solver;
+
+import org.acme.orderpicking.domain.OrderPickingSolution;
+import org.acme.orderpicking.domain.Trolley;
+import org.acme.orderpicking.domain.TrolleyStep;
+import ai.timefold.solver.core.api.domain.variable.ListVariableListener;
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+
+/**
+ * Keeps {@link Trolley#getRequiredBucketCount()} up to date by accounting only for the steps in the changed range
+ * of the path, instead of regrouping all the steps of the trolley by order.
+ * <p>
+ * A trolley accounts exactly for the steps that have it as their {@link TrolleyStep#getTrolley()}.
+ * That shadow variable is still the old one when a change is announced, so the steps that are about to leave the
+ * changed range are removed before the change, and the steps in the new range are added after it.
+ */
+public class RequiredBucketCountVariableListener
+        implements ListVariableListener<OrderPickingSolution, Trolley, TrolleyStep> {
+
+    @Override
+    public void beforeListVariableChanged(ScoreDirector<OrderPickingSolution> scoreDirector, Trolley trolley,
+            int fromIndex, int toIndex) {
+        scoreDirector.beforeVariableChanged(trolley, Trolley.REQUIRED_BUCKET_COUNT);
+        for (TrolleyStep step : trolley.getSteps().subList(fromIndex, toIndex)) {
+            // A step that has not been accounted for yet, for example when all the steps are announced initially.
+            if (step.getTrolley() == trolley) {
+                trolley.removeOrderItem(step.getOrderItem());
+            }
+        }
+        scoreDirector.afterVariableChanged(trolley, Trolley.REQUIRED_BUCKET_COUNT);
+    }
+
+    @Override
+    public void afterListVariableChanged(ScoreDirector<OrderPickingSolution> scoreDirector, Trolley trolley,
+            int fromIndex, int toIndex) {
+        scoreDirector.beforeVariableChanged(trolley, Trolley.REQUIRED_BUCKET_COUNT);
+        for (TrolleyStep step : trolley.getSteps().subList(fromIndex, toIndex)) {
+            trolley.addOrderItem(step.getOrderItem());
+        }
+        scoreDirector.afterVariableChanged(trolley, Trolley.REQUIRED_BUCKET_COUNT);
+    }
+
+    @Override
+    public void afterListVariableElementUnassigned(ScoreDirector<OrderPickingSolution> scoreDirector,
+            TrolleyStep step) {
+        // Do nothing: the step has already been removed in beforeListVariableChanged()
+    }
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<OrderPickingSolution> scoreDirector, Trolley trolley) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<OrderPickingSolution> scoreDirector, Trolley trolley) {
+        // Do nothing
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<OrderPickingSolution> scoreDirector, Trolley trolley) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<OrderPickingSolution> scoreDirector, Trolley trolley) {
+        // Do nothing
+    }
+}
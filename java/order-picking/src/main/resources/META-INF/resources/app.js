@@ -50,7 +50,7 @@ function printSolutionTable(orderPickingSolution) {
     const trolleysByOrder = unassignedOrderItemsAndOrdersSpreading[1];
     const unassignedTrolleys = [];
     for (const trolley of orderPickingSolution.trolleys) {
-        if (trolley.nextElement != null) {
+        if (trolley.steps.length > 0) {
             const travelDistance = TROLLEY_TRAVEL_DISTANCE.get(trolley.id);
             printTrolley(tableBody, trolley, travelDistance, unassignedItemsByOrder, trolleysByOrder);
         } else {
@@ -194,13 +194,7 @@ function findUnassignedOrderItemsAndOrdersSpreading(orderPickingSolution) {
  * @returns [TrolleyStep] an array with the trolley steps for the given trolley.
  */
 function extractTrolleySteps(trolley) {
-    const trolleySteps = [];
-    let next = trolley.nextElement;
-    while (next != null) {
-        trolleySteps.push(next);
-        next = next.nextElement;
-    }
-    return trolleySteps;
+    return trolley.steps;
 }
 
 function printTrolley(tableBody, trolley, travelDistance, unAssignedItemsByOrder, trolleysByOrder) {
@@ -396,14 +390,14 @@ function printTrolleysMap(orderPickingSolution) {
     const trolleyCheckBoxes = [];
     let trolleyIndex = 0;
     for (const trolley of orderPickingSolution.trolleys) {
-        if (trolley.nextElement != null) {
+        if (trolley.steps.length > 0) {
             printTrolleyPath(trolley, trolleyIndex, orderPickingSolution.trolleys.length, false);
             trolleyCheckBoxes.push(trolley.id);
         }
         trolleyIndex++;
     }
     for (const trolley of orderPickingSolution.trolleys) {
-        if (trolley.nextElement != null) {
+        if (trolley.steps.length > 0) {
             printTrolleyPath(trolley, trolleyIndex, orderPickingSolution.trolleys.length, true);
             trolleyCheckBoxes.push(trolley.id);
         }
@@ -9,9 +9,13 @@ import static org.acme.orderpicking.domain.Warehouse.Row.ROW_1;
 import static org.acme.orderpicking.domain.Warehouse.Row.ROW_2;
 import static org.acme.orderpicking.domain.Warehouse.Row.ROW_3;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -29,6 +33,31 @@ class WarehouseTest {
                 .isEqualTo(expectedDistance);
     }
 
+    @Test
+    void locationIndexIsUnique() {
+        Set<Integer> indexes = new HashSet<>();
+        for (Warehouse.Column column : Warehouse.Column.values()) {
+            for (Warehouse.Row row : Warehouse.Row.values()) {
+                for (Shelving.Side side : Shelving.Side.values()) {
+                    for (int shelvingRow = 0; shelvingRow <= Shelving.ROWS_SIZE; shelvingRow++) {
+                        WarehouseLocation location = new WarehouseLocation(newShelvingId(column, row), side, shelvingRow);
+                        assertThat(indexes.add(location.getIndex()))
+                                .withFailMessage("Index of %s must be unique", location)
+                                .isTrue();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void calculateDistanceToUnknownShelving() {
+        WarehouseLocation start = new WarehouseLocation(newShelvingId(COL_B, ROW_1), Shelving.Side.LEFT, 1);
+        WarehouseLocation end = new WarehouseLocation("(Z,9)", Shelving.Side.LEFT, 1);
+        assertThatThrownBy(() -> Warehouse.calculateDistance(start, end))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
     private static Stream<Arguments> calculateDistanceParams() {
         return Stream.of(
                 //distances between locations on the same shelving
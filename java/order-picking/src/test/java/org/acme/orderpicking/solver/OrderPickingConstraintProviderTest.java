@@ -9,7 +9,6 @@ import static org.acme.orderpicking.domain.Warehouse.Row.ROW_1;
 import static org.acme.orderpicking.domain.Warehouse.Row.ROW_2;
 import static org.acme.orderpicking.domain.Warehouse.Row.ROW_3;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Stream;
@@ -24,7 +23,6 @@ import org.acme.orderpicking.domain.OrderPickingSolution;
 import org.acme.orderpicking.domain.Product;
 import org.acme.orderpicking.domain.Shelving;
 import org.acme.orderpicking.domain.Trolley;
-import org.acme.orderpicking.domain.TrolleyOrTrolleyStep;
 import org.acme.orderpicking.domain.TrolleyStep;
 import org.acme.orderpicking.domain.Warehouse;
 import org.acme.orderpicking.domain.WarehouseLocation;
@@ -92,20 +90,14 @@ class OrderPickingConstraintProviderTest {
                 trolley2Step5,
                 trolley2Step6);
 
+        accountOrderItems(trolley1);
+        accountOrderItems(trolley2);
+
         //Penalization Trolley1 = 1
         //Penalization Trolley2 = 4
         //Total penalization = 5
         constraintVerifier.verifyThat(OrderPickingConstraintProvider::requiredNumberOfBuckets)
-                .given(trolley1Step1,
-                        trolley1Step2,
-                        trolley1Step3,
-                        trolley1Step4,
-                        trolley2Step1,
-                        trolley2Step2,
-                        trolley2Step3,
-                        trolley2Step4,
-                        trolley2Step5,
-                        trolley2Step6)
+                .given(trolley1, trolley2)
                 .penalizesBy(5);
     }
 
@@ -115,7 +107,7 @@ class OrderPickingConstraintProviderTest {
                 mockTrolleyStep(new WarehouseLocation(newShelvingId(COL_C, ROW_3), Shelving.Side.RIGHT, 1));
         TrolleyStep previousTrolleyStep =
                 mockTrolleyStep(new WarehouseLocation(newShelvingId(COL_E, ROW_1), Shelving.Side.RIGHT, 3));
-        currentTrolleyStep.setPreviousElement(previousTrolleyStep);
+        mockTrolley(1, 1, previousTrolleyStep, currentTrolleyStep);
 
         Warehouse.calculateDistance(currentTrolleyStep.getLocation(), previousTrolleyStep.getLocation());
         constraintVerifier.verifyThat(OrderPickingConstraintProvider::minimizeDistanceFromPreviousTrolleyStep)
@@ -225,22 +217,25 @@ class OrderPickingConstraintProviderTest {
     }
 
     private static List<TrolleyStep> trolleySteps(Trolley trolley) {
-        ArrayList<TrolleyStep> result = new ArrayList<>();
-        TrolleyStep nextElement = trolley.getNextElement();
-        while (nextElement != null) {
-            result.add(nextElement);
-            nextElement = nextElement.getNextElement();
-        }
-        return result;
+        return trolley.getSteps();
     }
 
     private static void linkPathElements(Trolley trolley, TrolleyStep... trolleySteps) {
-        TrolleyOrTrolleyStep previousStep = trolley;
+        TrolleyStep previousStep = null;
         for (TrolleyStep trolleyStep : trolleySteps) {
+            trolley.getSteps().add(trolleyStep);
             trolleyStep.setTrolley(trolley);
-            trolleyStep.setPreviousElement(previousStep);
-            previousStep.setNextElement(trolleyStep);
+            trolleyStep.setPreviousStep(previousStep);
+            if (previousStep != null) {
+                previousStep.setNextStep(trolleyStep);
+            }
             previousStep = trolleyStep;
         }
     }
+
+    private static void accountOrderItems(Trolley trolley) {
+        for (TrolleyStep trolleyStep : trolley.getSteps()) {
+            trolley.addOrderItem(trolleyStep.getOrderItem());
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package org.acme.orderpicking.solver;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingInt;
+import static org.acme.orderpicking.domain.Shelving.newShelvingId;
+import static org.acme.orderpicking.domain.Warehouse.Column.COL_A;
+import static org.acme.orderpicking.domain.Warehouse.Row.ROW_1;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+
+import org.acme.orderpicking.bootstrap.DemoDataGenerator;
+import org.acme.orderpicking.domain.Order;
+import org.acme.orderpicking.domain.OrderPickingSolution;
+import org.acme.orderpicking.domain.Shelving;
+import org.acme.orderpicking.domain.Trolley;
+import org.acme.orderpicking.domain.TrolleyStep;
+import org.acme.orderpicking.domain.WarehouseLocation;
+import org.junit.jupiter.api.Test;
+
+class RequiredBucketCountVariableListenerTest {
+
+    // Small enough for many orders to need more than one bucket.
+    private static final int BUCKET_CAPACITY = 10_000;
+
+    @Test
+    void updateAssignedSteps() {
+        OrderPickingSolution solution = generateSolution();
+        List<Trolley> trolleys = solution.getTrolleys();
+        List<TrolleyStep> trolleySteps = solution.getTrolleySteps();
+        for (int i = 0; i < trolleySteps.size(); i++) {
+            trolleys.get(i % trolleys.size()).getSteps().add(trolleySteps.get(i));
+        }
+
+        SolutionManager<OrderPickingSolution, ?> solutionManager = SolutionManager.create(
+                SolverFactory.create(buildSolverConfig()));
+        solutionManager.update(solution);
+        assertRequiredBucketCounts(solution);
+        // Updating again must not account for the same steps twice.
+        solutionManager.update(solution);
+        assertRequiredBucketCounts(solution);
+    }
+
+    @Test
+    void solve() {
+        // FULL_ASSERT also fails the solver as soon as a shadow variable is stale after a move.
+        SolverFactory<OrderPickingSolution> solverFactory = SolverFactory.create(buildSolverConfig()
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withPhases(new ConstructionHeuristicPhaseConfig(),
+                        new LocalSearchPhaseConfig().withTerminationConfig(
+                                new TerminationConfig().withStepCountLimit(100))));
+        OrderPickingSolution solution = solverFactory.buildSolver().solve(generateSolution());
+        assertRequiredBucketCounts(solution);
+    }
+
+    private static SolverConfig buildSolverConfig() {
+        return new SolverConfig()
+                .withSolutionClass(OrderPickingSolution.class)
+                .withEntityClasses(Trolley.class, TrolleyStep.class)
+                .withConstraintProviderClass(OrderPickingConstraintProvider.class);
+    }
+
+    private static OrderPickingSolution generateSolution() {
+        DemoDataGenerator demoDataGenerator = new DemoDataGenerator();
+        WarehouseLocation startLocation = new WarehouseLocation(newShelvingId(COL_A, ROW_1), Shelving.Side.LEFT, 0);
+        List<Trolley> trolleys = demoDataGenerator.buildTrolleys(3, 4, BUCKET_CAPACITY, startLocation);
+        List<TrolleyStep> trolleySteps = demoDataGenerator.buildTrolleySteps(demoDataGenerator.buildOrders(8));
+        return new OrderPickingSolution(trolleys, trolleySteps);
+    }
+
+    private static void assertRequiredBucketCounts(OrderPickingSolution solution) {
+        for (Trolley trolley : solution.getTrolleys()) {
+            Map<Order, Integer> orderToVolume = trolley.getSteps().stream()
+                    .collect(groupingBy(step -> step.getOrderItem().getOrder(),
+                            summingInt(step -> step.getOrderItem().getVolume())));
+            int requiredBucketCount = orderToVolume.values().stream()
+                    .mapToInt(volume -> (volume + BUCKET_CAPACITY - 1) / BUCKET_CAPACITY)
+                    .sum();
+            assertThat(trolley.getRequiredBucketCount()).as(trolley.getId()).isEqualTo(requiredBucketCount);
+        }
+    }
+}
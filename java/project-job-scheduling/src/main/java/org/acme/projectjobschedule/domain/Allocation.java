@@ -1,7 +1,5 @@
 package org.acme.projectjobschedule.domain;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -55,7 +53,9 @@ public class Allocation {
     // Filled from shadow variables
     private Integer startDate;
     private Integer endDate;
-    private List<Integer> busyDates;
+
+    // Derived from the predecessor allocations, which don't change during planning
+    private int topologicalRank = -1;
 
     public Allocation() {
     }
@@ -172,7 +172,6 @@ public class Allocation {
     public void invalidateComputedVariables() {
         this.startDate = null;
         this.endDate = null;
-        this.busyDates = null;
     }
 
     public Integer getStartDate() {
@@ -189,22 +188,22 @@ public class Allocation {
         return endDate;
     }
 
+    /**
+     * @return the number of allocations on the longest chain of predecessors, so an allocation always has a higher
+     *         rank than all its predecessors
+     */
     @JsonIgnore
-    public List<Integer> getBusyDates() {
-        if (busyDates == null) {
-            if (predecessorsDoneDate == null) {
-                busyDates = Collections.emptyList();
-            } else {
-                var start = getStartDate();
-                var end = getEndDate();
-                var dates = new Integer[end - start];
-                for (int i = 0; i < dates.length; i++) {
-                    dates[i] = start + i;
+    public int getTopologicalRank() {
+        if (topologicalRank < 0) {
+            int rank = 0;
+            if (predecessorAllocations != null) {
+                for (Allocation predecessorAllocation : predecessorAllocations) {
+                    rank = Math.max(rank, predecessorAllocation.getTopologicalRank() + 1);
                 }
-                busyDates = Arrays.asList(dates);
             }
+            topologicalRank = rank;
         }
-        return busyDates;
+        return topologicalRank;
     }
 
     @JsonIgnore
@@ -1,8 +1,12 @@
 package org.acme.projectjobschedule.domain.solver;
 
-import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.Set;
 
 import ai.timefold.solver.core.api.domain.variable.VariableListener;
 import ai.timefold.solver.core.api.score.director.ScoreDirector;
@@ -45,13 +49,26 @@ public class PredecessorsDoneDateUpdatingVariableListener implements VariableLis
     protected void updateAllocation(ScoreDirector<ProjectJobSchedule> scoreDirector, Allocation originalAllocation) {
         // Reset computed variables when a planning variable changes to prevent score corruption
         originalAllocation.invalidateComputedVariables();
-        Queue<Allocation> uncheckedSuccessorQueue = new ArrayDeque<>();
-        uncheckedSuccessorQueue.addAll(originalAllocation.getSuccessorAllocations());
+        // Successors are checked in topological order, so an allocation is only checked after all its predecessors
+        // that might change, and it is checked at most once even if several of them changed.
+        Queue<Allocation> uncheckedSuccessorQueue =
+                new PriorityQueue<>(Comparator.comparingInt(Allocation::getTopologicalRank));
+        Set<Allocation> queuedSuccessorSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        queueSuccessors(originalAllocation, uncheckedSuccessorQueue, queuedSuccessorSet);
         while (!uncheckedSuccessorQueue.isEmpty()) {
             Allocation allocation = uncheckedSuccessorQueue.remove();
             boolean updated = updatePredecessorsDoneDate(scoreDirector, allocation);
             if (updated) {
-                uncheckedSuccessorQueue.addAll(allocation.getSuccessorAllocations());
+                queueSuccessors(allocation, uncheckedSuccessorQueue, queuedSuccessorSet);
+            }
+        }
+    }
+
+    private static void queueSuccessors(Allocation allocation, Queue<Allocation> uncheckedSuccessorQueue,
+            Set<Allocation> queuedSuccessorSet) {
+        for (Allocation successorAllocation : allocation.getSuccessorAllocations()) {
+            if (queuedSuccessorSet.add(successorAllocation)) {
+                uncheckedSuccessorQueue.add(successorAllocation);
             }
         }
     }
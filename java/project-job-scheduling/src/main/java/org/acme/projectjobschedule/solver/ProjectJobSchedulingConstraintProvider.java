@@ -36,18 +36,18 @@ public class ProjectJobSchedulingConstraintProvider implements ConstraintProvide
                 .asConstraint("Non-renewable resource capacity");
     }
 
+    // The usage of each resource is kept as a step function over the allocation start and end dates,
+    // instead of one tuple per busy date of every allocation.
     protected Constraint renewableResourceCapacity(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(ResourceRequirement.class)
                 .filter(ResourceRequirement::isResourceRenewable)
                 .join(Allocation.class,
                         Joiners.equal(ResourceRequirement::getExecutionMode, Allocation::getExecutionMode))
-                .flattenLast(Allocation::getBusyDates)
-                .groupBy((resourceReq, date) -> resourceReq.getResource(),
-                        (resourceReq, date) -> date,
-                        ConstraintCollectors.sum((resourceReq, date) -> resourceReq.getRequirement()))
-                .filter((resourceReq, date, totalRequirement) -> totalRequirement > resourceReq.getCapacity())
+                .groupBy((resourceReq, allocation) -> resourceReq.getResource(),
+                        ResourceUsageProfile.overload())
+                .filter((resource, overload) -> overload > 0)
                 .penalize(HardMediumSoftScore.ONE_HARD,
-                        (resourceReq, date, totalRequirement) -> totalRequirement - resourceReq.getCapacity())
+                        (resource, overload) -> overload)
                 .asConstraint("Renewable resource capacity");
     }
 
@@ -0,0 +1,116 @@
+package org.acme.projectjobschedule.solver;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import ai.timefold.solver.core.api.function.TriFunction;
+import ai.timefold.solver.core.api.score.stream.bi.BiConstraintCollector;
+
+import org.acme.projectjobschedule.domain.Allocation;
+import org.acme.projectjobschedule.domain.ResourceRequirement;
+
+/**
+ * The usage of a renewable resource over time, as a step function.
+ * <p>
+ * Every allocation adds its requirement from its start date until its end date,
+ * so the profile only changes at those dates instead of having an entry for every busy date.
+ */
+final class ResourceUsageProfile {
+
+    /**
+     * Collects the requirements of the allocations of a single resource
+     * into the overload of that resource: the usage above its capacity, summed over all dates.
+     *
+     * @return never null
+     */
+    static BiConstraintCollector<ResourceRequirement, Allocation, ResourceUsageProfile, Integer> overload() {
+        return new BiConstraintCollector<>() {
+            @Override
+            public Supplier<ResourceUsageProfile> supplier() {
+                return ResourceUsageProfile::new;
+            }
+
+            @Override
+            public TriFunction<ResourceUsageProfile, ResourceRequirement, Allocation, Runnable> accumulator() {
+                return ResourceUsageProfile::add;
+            }
+
+            @Override
+            public Function<ResourceUsageProfile, Integer> finisher() {
+                return ResourceUsageProfile::getOverload;
+            }
+        };
+    }
+
+    // Key: date, value: usage from that date until the next date. The usage is zero before the first date.
+    private final TreeMap<Integer, Integer> usageMap = new TreeMap<>();
+    private int capacity;
+    // Kept up to date on every change, so the finisher does not walk the whole profile.
+    private int overload = 0;
+
+    private Runnable add(ResourceRequirement requirement, Allocation allocation) {
+        Integer startDate = allocation.getStartDate();
+        Integer endDate = allocation.getEndDate();
+        if (startDate == null || endDate == null || startDate >= endDate) {
+            return () -> {
+            };
+        }
+        capacity = requirement.getResource().getCapacity();
+        int usage = requirement.getRequirement();
+        addUsage(startDate, endDate, usage);
+        return () -> addUsage(startDate, endDate, -usage);
+    }
+
+    /**
+     * Change the usage from the start date until the end date, and the overload accordingly.
+     * Only walks the dates in between, where the usage changes.
+     */
+    private void addUsage(int startDate, int endDate, int usageDelta) {
+        splitAt(startDate);
+        splitAt(endDate);
+        Iterator<Map.Entry<Integer, Integer>> iterator =
+                usageMap.subMap(startDate, true, endDate, true).entrySet().iterator();
+        Map.Entry<Integer, Integer> entry = iterator.next();
+        while (entry.getKey() != endDate) {
+            Map.Entry<Integer, Integer> nextEntry = iterator.next();
+            int oldUsage = entry.getValue();
+            int newUsage = oldUsage + usageDelta;
+            overload += (nextEntry.getKey() - entry.getKey())
+                    * (getUsageOverload(newUsage) - getUsageOverload(oldUsage));
+            entry.setValue(newUsage);
+            entry = nextEntry;
+        }
+        mergeAt(startDate);
+        mergeAt(endDate);
+    }
+
+    private int getUsageOverload(int usage) {
+        return Math.max(usage - capacity, 0);
+    }
+
+    private void splitAt(int date) {
+        if (!usageMap.containsKey(date)) {
+            Map.Entry<Integer, Integer> previousEntry = usageMap.lowerEntry(date);
+            usageMap.put(date, previousEntry == null ? 0 : previousEntry.getValue());
+        }
+    }
+
+    /**
+     * Remove the date if the usage does not change on it, so the profile only keeps the dates where it changes.
+     */
+    private void mergeAt(int date) {
+        Map.Entry<Integer, Integer> previousEntry = usageMap.lowerEntry(date);
+        int previousUsage = previousEntry == null ? 0 : previousEntry.getValue();
+        if (usageMap.get(date) == previousUsage) {
+            usageMap.remove(date);
+        }
+    }
+
+    private int getOverload() {
+        return overload;
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.acme.projectjobschedule.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ai.timefold.solver.core.api.score.stream.bi.BiConstraintCollector;
+
+import org.acme.projectjobschedule.domain.Allocation;
+import org.acme.projectjobschedule.domain.ExecutionMode;
+import org.acme.projectjobschedule.domain.Project;
+import org.acme.projectjobschedule.domain.ResourceRequirement;
+import org.acme.projectjobschedule.domain.resource.LocalResource;
+import org.junit.jupiter.api.Test;
+
+class ResourceUsageProfileTest {
+
+    private static final BiConstraintCollector<ResourceRequirement, Allocation, ResourceUsageProfile, Integer> OVERLOAD =
+            ResourceUsageProfile.overload();
+
+    @Test
+    void overlappingAllocations() {
+        LocalResource resource = new LocalResource("1", new Project("1"), 2, true);
+        ResourceUsageProfile profile = OVERLOAD.supplier().get();
+        add(profile, resource, 1, 0, 10);
+        add(profile, resource, 1, 5, 15);
+        assertThat(getOverload(profile)).isZero();
+        add(profile, resource, 1, 8, 12);
+        // Usage 3 from 8 until 10
+        assertThat(getOverload(profile)).isEqualTo(2);
+        add(profile, resource, 2, 9, 20);
+        // Usage 3 from 8 until 9, 5 from 9 until 10, 4 from 10 until 12 and 3 from 12 until 15
+        assertThat(getOverload(profile)).isEqualTo(1 + 3 + 2 * 2 + 3 * 1);
+    }
+
+    @Test
+    void touchingAllocations() {
+        LocalResource resource = new LocalResource("1", new Project("1"), 1, true);
+        ResourceUsageProfile profile = OVERLOAD.supplier().get();
+        add(profile, resource, 1, 0, 5);
+        add(profile, resource, 1, 5, 10);
+        add(profile, resource, 1, 10, 15);
+        assertThat(getOverload(profile)).isZero();
+        add(profile, resource, 2, 5, 10);
+        assertThat(getOverload(profile)).isEqualTo(5 * 2);
+    }
+
+    @Test
+    void allocationWithoutDuration() {
+        LocalResource resource = new LocalResource("1", new Project("1"), 1, true);
+        ResourceUsageProfile profile = OVERLOAD.supplier().get();
+        add(profile, resource, 1, 0, 10);
+        Runnable undo = add(profile, resource, 5, 5, 5);
+        assertThat(getOverload(profile)).isZero();
+        undo.run();
+        assertThat(getOverload(profile)).isZero();
+        // Unassigned
+        OVERLOAD.accumulator().apply(profile, new ResourceRequirement("2", null, resource, 5), new Allocation("2"))
+                .run();
+        assertThat(getOverload(profile)).isZero();
+    }
+
+    @Test
+    void addAndRemoveInAnyOrder() {
+        LocalResource resource = new LocalResource("1", new Project("1"), 3, true);
+        ResourceUsageProfile profile = OVERLOAD.supplier().get();
+        Random random = new Random(37);
+        List<int[]> allocations = new ArrayList<>();
+        List<Runnable> undos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int startDate = random.nextInt(100);
+            int[] allocation = { random.nextInt(3) + 1, startDate, startDate + random.nextInt(20) };
+            allocations.add(allocation);
+            undos.add(add(profile, resource, allocation[0], allocation[1], allocation[2]));
+            assertThat(getOverload(profile)).isEqualTo(recount(allocations, resource.getCapacity()));
+        }
+        while (!allocations.isEmpty()) {
+            int index = random.nextInt(allocations.size());
+            allocations.remove(index);
+            undos.remove(index).run();
+            assertThat(getOverload(profile)).isEqualTo(recount(allocations, resource.getCapacity()));
+        }
+        assertThat(getOverload(profile)).isZero();
+    }
+
+    private static Runnable add(ResourceUsageProfile profile, LocalResource resource, int requirement,
+            int startDate, int endDate) {
+        Allocation allocation = new Allocation();
+        allocation.setExecutionMode(new ExecutionMode("1", null, endDate - startDate));
+        allocation.setDelay(0);
+        allocation.setPredecessorsDoneDate(startDate);
+        return OVERLOAD.accumulator().apply(profile, new ResourceRequirement("1", null, resource, requirement),
+                allocation);
+    }
+
+    private static int getOverload(ResourceUsageProfile profile) {
+        return OVERLOAD.finisher().apply(profile);
+    }
+
+    /**
+     * @param allocations the requirement, start date and end date of each allocation
+     */
+    private static int recount(List<int[]> allocations, int capacity) {
+        int overload = 0;
+        for (int date = 0; date < 200; date++) {
+            int usage = 0;
+            for (int[] allocation : allocations) {
+                if (allocation[1] <= date && date < allocation[2]) {
+                    usage += allocation[0];
+                }
+            }
+            overload += Math.max(usage - capacity, 0);
+        }
+        return overload;
+    }
+}
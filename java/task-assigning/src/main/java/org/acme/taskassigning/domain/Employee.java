@@ -17,6 +17,8 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 @JsonIdentityInfo(scope = Employee.class, generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Employee {
 
+    private static final Affinity[] AFFINITIES = Affinity.values();
+
     @PlanningId
     private String id;
     private String fullName;
@@ -27,6 +29,11 @@ public class Employee {
     @PlanningListVariable(allowsUnassignedValues = true)
     private List<Task> tasks;
 
+    // Set by the solution, indexed by the task type index and the customer index of its tasks.
+    // Null if the employee does not belong to a solution yet.
+    private int[] missingSkillCounts;
+    private byte[] affinityOrdinals;
+
     public Employee() {
     }
 
@@ -70,6 +77,7 @@ public class Employee {
 
     public void setSkills(List<String> skills) {
         this.skills = skills;
+        this.missingSkillCounts = null;
     }
 
     public Map<Customer, Affinity> getCustomerToAffinity() {
@@ -78,6 +86,7 @@ public class Employee {
 
     public void setCustomerToAffinity(Map<Customer, Affinity> customerToAffinity) {
         this.customerToAffinity = customerToAffinity;
+        this.affinityOrdinals = null;
     }
 
     public List<Task> getTasks() {
@@ -94,15 +103,52 @@ public class Employee {
 
     /**
      * @param customer never null
+     * @param customerIndex the index of the customer in the solution, or -1 if it is unknown
      * @return never null
      */
     @JsonIgnore
-    public Affinity getAffinity(Customer customer) {
-        return customerToAffinity.getOrDefault(customer, Affinity.NONE);
+    public Affinity getAffinity(Customer customer, int customerIndex) {
+        if (affinityOrdinals == null || customerIndex < 0) {
+            return customerToAffinity.getOrDefault(customer, Affinity.NONE);
+        }
+        return AFFINITIES[affinityOrdinals[customerIndex]];
+    }
+
+    /**
+     * @param taskType never null
+     * @param taskTypeIndex the index of the task type in the solution, or -1 if it is unknown
+     * @return the number of skills required by the task type that this employee doesn't have
+     */
+    public int getMissingSkillCount(TaskType taskType, int taskTypeIndex) {
+        if (missingSkillCounts == null || taskTypeIndex < 0) {
+            int count = 0;
+            for (String skill : taskType.getRequiredSkills()) {
+                if (!skills.contains(skill)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        return missingSkillCounts[taskTypeIndex];
+    }
+
+    void index(Map<TaskType, Integer> taskTypeToIndex, Map<Customer, Integer> customerToIndex) {
+        missingSkillCounts = null;
+        affinityOrdinals = null;
+        if (skills != null) {
+            int[] counts = new int[taskTypeToIndex.size()];
+            taskTypeToIndex.forEach((taskType, index) -> counts[index] = getMissingSkillCount(taskType, -1));
+            missingSkillCounts = counts;
+        }
+        if (customerToAffinity != null) {
+            byte[] ordinals = new byte[customerToIndex.size()];
+            customerToIndex.forEach((customer, index) -> ordinals[index] = (byte) getAffinity(customer, -1).ordinal());
+            affinityOrdinals = ordinals;
+        }
     }
 
     @JsonIgnore
-    public Integer getEndTime() {
+    public int getEndTime() {
         return tasks.isEmpty() ? 0 : tasks.get(tasks.size() - 1).getEndTime();
     }
 
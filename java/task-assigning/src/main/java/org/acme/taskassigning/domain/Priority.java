@@ -1,7 +1,20 @@
 package org.acme.taskassigning.domain;
 
 public enum Priority {
-    MINOR,
-    MAJOR,
-    CRITICAL;
+    MINOR(1),
+    MAJOR(2),
+    CRITICAL(4);
+
+    private final int endTimeWeight;
+
+    Priority(int endTimeWeight) {
+        this.endTimeWeight = endTimeWeight;
+    }
+
+    /**
+     * @return how much heavier the end time of a task with this priority weighs than that of a {@link #MINOR} task
+     */
+    public int getEndTimeWeight() {
+        return endTimeWeight;
+    }
 }
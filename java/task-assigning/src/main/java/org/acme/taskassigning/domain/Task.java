@@ -22,6 +22,10 @@ public class Task {
     private int minStartTime;
     private Priority priority;
 
+    // Set by the solution, -1 if the task does not belong to a solution yet.
+    private int taskTypeIndex = -1;
+    private int customerIndex = -1;
+
     // Shadow variables
     @JsonIgnore
     @InverseRelationShadowVariable(sourceVariableName = "tasks")
@@ -32,6 +36,9 @@ public class Task {
     @JsonIgnore
     @CascadingUpdateShadowVariable(targetMethodName = "updateStartTime")
     private Integer startTime; // In minutes
+    // Updated together with the start time, 0 if there is no start time
+    @JsonIgnore
+    private int endTime; // In minutes
 
     public Task() {
     }
@@ -69,6 +76,7 @@ public class Task {
 
     public void setTaskType(TaskType taskType) {
         this.taskType = taskType;
+        this.taskTypeIndex = -1;
     }
 
     public int getIndexInTaskType() {
@@ -85,6 +93,7 @@ public class Task {
 
     public void setCustomer(Customer customer) {
         this.customer = customer;
+        this.customerIndex = -1;
     }
 
     public int getMinStartTime() {
@@ -125,6 +134,7 @@ public class Task {
 
     public void setStartTime(Integer startTime) {
         this.startTime = startTime;
+        this.endTime = startTime == null ? 0 : startTime + getDuration();
     }
 
     // ************************************************************************
@@ -135,11 +145,11 @@ public class Task {
     private void updateStartTime() {
         if (employee == null) {
             startTime = null;
-        } else if (previousTask == null) {
-            startTime = minStartTime;
+            endTime = 0;
         } else {
-            var previousEndTime = previousTask.getEndTime();
-            startTime = Math.max(previousEndTime, minStartTime);
+            int start = previousTask == null ? minStartTime : Math.max(previousTask.endTime, minStartTime);
+            startTime = start;
+            endTime = start + getDuration();
         }
     }
 
@@ -148,13 +158,7 @@ public class Task {
         if (employee == null) {
             return 0;
         }
-        int count = 0;
-        for (String skill : taskType.getRequiredSkills()) {
-            if (!employee.getSkills().contains(skill)) {
-                count++;
-            }
-        }
-        return count;
+        return employee.getMissingSkillCount(taskType, taskTypeIndex);
     }
 
     @JsonIgnore
@@ -165,15 +169,19 @@ public class Task {
 
     @JsonIgnore
     public Affinity getAffinity() {
-        return (employee == null) ? Affinity.NONE : employee.getAffinity(customer);
+        return (employee == null) ? Affinity.NONE : employee.getAffinity(customer, customerIndex);
     }
 
-    @JsonIgnore
-    public Integer getEndTime() {
-        if (startTime == null) {
-            return null;
-        }
-        return startTime + getDuration();
+    void index(int taskTypeIndex, int customerIndex) {
+        this.taskTypeIndex = taskTypeIndex;
+        this.customerIndex = customerIndex;
+    }
+
+    /**
+     * @return 0 if there is no start time
+     */
+    public int getEndTime() {
+        return endTime;
     }
 
     @JsonIgnore
@@ -1,6 +1,8 @@
 package org.acme.taskassigning.domain;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
@@ -44,6 +46,7 @@ public class TaskAssigningSolution {
 
     public void setTaskTypes(List<TaskType> taskTypes) {
         this.taskTypes = taskTypes;
+        indexProblemFacts();
     }
 
     public List<Customer> getCustomers() {
@@ -52,6 +55,7 @@ public class TaskAssigningSolution {
 
     public void setCustomers(List<Customer> customers) {
         this.customers = customers;
+        indexProblemFacts();
     }
 
     public List<Employee> getEmployees() {
@@ -60,6 +64,7 @@ public class TaskAssigningSolution {
 
     public void setEmployees(List<Employee> employees) {
         this.employees = employees;
+        indexProblemFacts();
     }
 
     public List<Task> getTasks() {
@@ -68,6 +73,7 @@ public class TaskAssigningSolution {
 
     public void setTasks(List<Task> tasks) {
         this.tasks = tasks;
+        indexProblemFacts();
     }
 
     public BendableScore getScore() {
@@ -85,4 +91,36 @@ public class TaskAssigningSolution {
     public void setSolverStatus(SolverStatus solverStatus) {
         this.solverStatus = solverStatus;
     }
+
+    // ************************************************************************
+    // Complex methods
+    // ************************************************************************
+
+    /**
+     * Once all the problem facts and entities are known, number the task types and the customers of this solution,
+     * so the employees can look up their missing skills and affinities by the index kept on each task.
+     * The task types and customers may be shared with other solutions, so they do not hold the index themselves.
+     */
+    private void indexProblemFacts() {
+        if (taskTypes == null || customers == null || employees == null || tasks == null) {
+            return;
+        }
+        Map<TaskType, Integer> taskTypeToIndex = indexOf(taskTypes);
+        Map<Customer, Integer> customerToIndex = indexOf(customers);
+        for (Employee employee : employees) {
+            employee.index(taskTypeToIndex, customerToIndex);
+        }
+        for (Task task : tasks) {
+            task.index(taskTypeToIndex.getOrDefault(task.getTaskType(), -1),
+                    customerToIndex.getOrDefault(task.getCustomer(), -1));
+        }
+    }
+
+    private static <T> Map<T, Integer> indexOf(List<T> values) {
+        Map<T, Integer> valueToIndex = new HashMap<>(values.size());
+        for (T value : values) {
+            valueToIndex.putIfAbsent(value, valueToIndex.size());
+        }
+        return valueToIndex;
+    }
 }
@@ -0,0 +1,120 @@
+package org.acme.taskassigning.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import ai.timefold.solver.core.api.solver.SolverJob;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+
+import org.acme.taskassigning.domain.Affinity;
+import org.acme.taskassigning.domain.Customer;
+import org.acme.taskassigning.domain.Employee;
+import org.acme.taskassigning.domain.Priority;
+import org.acme.taskassigning.domain.Task;
+import org.acme.taskassigning.domain.TaskAssigningSolution;
+import org.acme.taskassigning.domain.TaskType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the score calculation speed on a large generated dataset.
+ * <p>
+ * Skipped by default, run it with:
+ * {@code mvn test -Dtest=TaskAssigningBenchmarkTest -Dbenchmark=true}.
+ * The dataset size and the solving time can be changed with
+ * {@code -Dbenchmark.employeeCount=500 -Dbenchmark.taskCount=30000 -Dbenchmark.spentLimit=PT5M}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskAssigningBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskAssigningBenchmarkTest.class);
+
+    private static final int SKILL_COUNT = 20;
+    private static final int TASK_TYPE_COUNT = 40;
+    private static final int CUSTOMER_COUNT = 50;
+
+    @Test
+    void scoreCalculationSpeed() throws Exception {
+        int employeeCount = Integer.getInteger("benchmark.employeeCount", 100);
+        int taskCount = Integer.getInteger("benchmark.taskCount", 2000);
+        Duration spentLimit = Duration.parse(System.getProperty("benchmark.spentLimit", "PT1M"));
+
+        TaskAssigningSolution solution;
+        long scoreCalculationSpeed;
+        try (SolverManager<TaskAssigningSolution, Long> solverManager = SolverManager.create(new SolverConfig()
+                .withSolutionClass(TaskAssigningSolution.class)
+                .withEntityClasses(Employee.class, Task.class)
+                .withConstraintProviderClass(TaskAssigningConstraintProvider.class)
+                .withTerminationSpentLimit(spentLimit))) {
+            SolverJob<TaskAssigningSolution, Long> solverJob = solverManager.solve(1L,
+                    generateSolution(employeeCount, taskCount, new Random(37)));
+            solution = solverJob.getFinalBestSolution();
+            scoreCalculationSpeed = solverJob.getScoreCalculationSpeed();
+        }
+        LOGGER.info("Solved {} employees and {} tasks in {} with score ({}): score calculation speed ({}/sec).",
+                employeeCount, taskCount, spentLimit, solution.getScore(), scoreCalculationSpeed);
+        assertThat(scoreCalculationSpeed).isPositive();
+    }
+
+    private static TaskAssigningSolution generateSolution(int employeeCount, int taskCount, Random random) {
+        List<String> skills = new ArrayList<>(SKILL_COUNT);
+        for (int i = 0; i < SKILL_COUNT; i++) {
+            skills.add("Skill " + i);
+        }
+        List<TaskType> taskTypes = new ArrayList<>(TASK_TYPE_COUNT);
+        for (int i = 0; i < TASK_TYPE_COUNT; i++) {
+            taskTypes.add(new TaskType("T" + i, "Task type " + i, 30 + random.nextInt(60),
+                    pickSkills(skills, 1 + random.nextInt(3), random)));
+        }
+        List<Customer> customers = new ArrayList<>(CUSTOMER_COUNT);
+        for (int i = 0; i < CUSTOMER_COUNT; i++) {
+            customers.add(new Customer(Integer.toString(i), "Customer " + i));
+        }
+        Affinity[] affinities = Affinity.values();
+        List<Employee> employees = new ArrayList<>(employeeCount);
+        for (int i = 0; i < employeeCount; i++) {
+            Map<Customer, Affinity> customerToAffinity = new LinkedHashMap<>(customers.size());
+            for (Customer customer : customers) {
+                customerToAffinity.put(customer, affinities[random.nextInt(affinities.length)]);
+            }
+            employees.add(new Employee(Integer.toString(i), "Employee " + i,
+                    pickSkills(skills, 2 + random.nextInt(4), random), customerToAffinity));
+        }
+        Priority[] priorities = Priority.values();
+        int[] taskTypeIndexes = new int[taskTypes.size()];
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            int taskTypeIndex = random.nextInt(taskTypes.size());
+            tasks.add(new Task(Integer.toString(i), taskTypes.get(taskTypeIndex), ++taskTypeIndexes[taskTypeIndex],
+                    customers.get(random.nextInt(customers.size())), priorities[random.nextInt(priorities.length)]));
+        }
+
+        TaskAssigningSolution solution = new TaskAssigningSolution();
+        solution.setTaskTypes(taskTypes);
+        solution.setCustomers(customers);
+        solution.setEmployees(employees);
+        solution.setTasks(tasks);
+        return solution;
+    }
+
+    private static List<String> pickSkills(List<String> skills, int count, Random random) {
+        List<String> pickedSkills = new ArrayList<>(count);
+        while (pickedSkills.size() < count) {
+            String skill = skills.get(random.nextInt(skills.size()));
+            if (!pickedSkills.contains(skill)) {
+                pickedSkills.add(skill);
+            }
+        }
+        return pickedSkills;
+    }
+
+}
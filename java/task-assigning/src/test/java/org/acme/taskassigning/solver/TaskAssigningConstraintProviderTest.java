@@ -26,7 +26,7 @@ class TaskAssigningConstraintProviderTest {
 
     @Test
     void noMissingSkills() {
-        Customer customer = new Customer();
+        Customer customer = new Customer("1");
         Employee employee = new Employee();
         employee.setSkills(List.of("3"));
         // Task 1
@@ -45,6 +45,17 @@ class TaskAssigningConstraintProviderTest {
         constraintVerifier.verifyThat(TaskAssigningConstraintProvider::noMissingSkills)
                 .given(taskInvalid, taskValid, taskInvalid2)
                 .penalizesBy(3); // two invalid tasks
+
+        // Within a solution, the missing skills are counted per task type up front.
+        employee.setTasks(List.of(taskInvalid, taskValid, taskInvalid2));
+        TaskAssigningSolution solution = new TaskAssigningSolution();
+        solution.setTaskTypes(List.of(invalidType, validType, invalidType2));
+        solution.setCustomers(List.of(customer));
+        solution.setEmployees(List.of(employee));
+        solution.setTasks(List.of(taskInvalid, taskValid, taskInvalid2));
+        constraintVerifier.verifyThat(TaskAssigningConstraintProvider::noMissingSkills)
+                .givenSolution(solution)
+                .penalizesBy(3);
     }
 
     @Test
@@ -62,24 +73,6 @@ class TaskAssigningConstraintProviderTest {
                 .penalizesBy(2); // two invalid tasks
     }
 
-    @Test
-    void criticalPriorityTaskEndTime() {
-        Employee employee = new Employee();
-        Customer customer = new Customer("1");
-        employee.setCustomerToAffinity(Map.of(customer, Affinity.HIGH));
-        // Task 1
-        TaskType type1 = new TaskType("1", "1", 10);
-        Task task1 = new Task("1", type1, 1, customer, employee, 1, Priority.CRITICAL);
-        task1.setStartTime(1);
-        // Task 2
-        TaskType type2 = new TaskType("1", "1", 20);
-        Task task2 = new Task("2", type2, 1, customer, employee, 2, Priority.MINOR);
-
-        constraintVerifier.verifyThat(TaskAssigningConstraintProvider::criticalPriorityTaskEndTime)
-                .given(task1, task2)
-                .penalizesBy(44); // penalizes task1
-    }
-
     @Test
     void minimizeMakespan() {
         Employee employee1 = new Employee();
@@ -109,39 +102,22 @@ class TaskAssigningConstraintProviderTest {
     }
 
     @Test
-    void majorPriorityTaskEndTime() {
-        Employee employee = new Employee();
-        Customer customer = new Customer("1");
-        employee.setCustomerToAffinity(Map.of(customer, Affinity.HIGH));
-        // Task 1
-        TaskType type1 = new TaskType("1", "1", 10);
-        Task task1 = new Task("1", type1, 1, customer, employee, 1, Priority.MAJOR);
-        task1.setStartTime(1);
-        // Task 2
-        TaskType type2 = new TaskType("1", "1", 20);
-        Task task2 = new Task("2", type2, 1, customer, employee, 2, Priority.MINOR);
-
-        constraintVerifier.verifyThat(TaskAssigningConstraintProvider::majorPriorityTaskEndTime)
-                .given(task1, task2)
-                .penalizesBy(22); // penalizes task1
-    }
-
-    @Test
-    void minorPriorityTaskEndTime() {
+    void priorityTaskEndTime() {
         Employee employee = new Employee();
         Customer customer = new Customer("1");
         employee.setCustomerToAffinity(Map.of(customer, Affinity.HIGH));
-        // Task 1
-        TaskType type1 = new TaskType("1", "1", 10);
-        Task task1 = new Task("1", type1, 1, customer, employee, 1, Priority.MINOR);
-        task1.setStartTime(1);
-        // Task 2
-        TaskType type2 = new TaskType("1", "1", 20);
-        Task task2 = new Task("2", type2, 1, customer, employee, 2, Priority.MAJOR);
-
-        constraintVerifier.verifyThat(TaskAssigningConstraintProvider::minorPriorityTaskEndTime)
-                .given(task1, task2)
-                .penalizesBy(11); // penalizes task1
+        TaskType type = new TaskType("1", "1", 10);
+        Task criticalTask = new Task("1", type, 1, customer, employee, 1, Priority.CRITICAL);
+        criticalTask.setStartTime(1);
+        Task majorTask = new Task("2", type, 2, customer, employee, 1, Priority.MAJOR);
+        majorTask.setStartTime(1);
+        Task minorTask = new Task("3", type, 3, customer, employee, 1, Priority.MINOR);
+        minorTask.setStartTime(1);
+        Task unassignedTask = new Task("4", type, 4, customer, null, 1, Priority.CRITICAL);
+
+        constraintVerifier.verifyThat(TaskAssigningConstraintProvider::priorityTaskEndTime)
+                .given(criticalTask, majorTask, minorTask, unassignedTask)
+                .penalizesBy(44 + 22 + 11); // weighted by priority
     }
 
 }
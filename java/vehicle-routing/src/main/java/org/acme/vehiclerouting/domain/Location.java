@@ -1,6 +1,6 @@
 package org.acme.vehiclerouting.domain;
 
-import java.util.Map;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeMatrix;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonFormat;
@@ -14,7 +14,9 @@ public class Location {
     private double longitude;
 
     @JsonIgnore
-    private Map<Location, Long> drivingTimeSeconds;
+    private int index = -1;
+    @JsonIgnore
+    private DrivingTimeMatrix drivingTimeMatrix;
 
     @JsonCreator
     public Location(@JsonProperty("latitude") double latitude, @JsonProperty("longitude") double longitude) {
@@ -30,27 +32,33 @@ public class Location {
         return longitude;
     }
 
-    public Map<Location, Long> getDrivingTimeSeconds() {
-        return drivingTimeSeconds;
+    public int getIndex() {
+        return index;
+    }
+
+    public DrivingTimeMatrix getDrivingTimeMatrix() {
+        return drivingTimeMatrix;
     }
 
     /**
-     * Set the driving time map (in seconds).
+     * Set the driving time matrix shared by all locations of the plan.
      *
-     * @param drivingTimeSeconds a map containing driving time from here to other locations
+     * @param drivingTimeMatrix the matrix containing driving time between all locations of the plan
+     * @param index the row (and column) of this location in the matrix
      */
-    public void setDrivingTimeSeconds(Map<Location, Long> drivingTimeSeconds) {
-        this.drivingTimeSeconds = drivingTimeSeconds;
+    public void setDrivingTimeMatrix(DrivingTimeMatrix drivingTimeMatrix, int index) {
+        this.drivingTimeMatrix = drivingTimeMatrix;
+        this.index = index;
     }
 
     /**
      * Driving time to the given location in seconds.
      *
-     * @param location other location
+     * @param location other location, must be indexed in the same matrix
      * @return driving time in seconds
      */
     public long getDrivingTimeTo(Location location) {
-        return drivingTimeSeconds.get(location);
+        return drivingTimeMatrix.getDrivingTime(index, location.index);
     }
 
     @Override
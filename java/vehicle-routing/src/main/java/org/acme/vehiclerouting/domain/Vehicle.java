@@ -89,6 +89,14 @@ public class Vehicle implements LocationAware {
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public int getTotalDemand() {
+        if (visits.isEmpty()) {
+            return 0;
+        }
+        // The last visit accumulates the demand of the whole route, unless its shadow variables are not updated yet.
+        Integer cumulativeDemand = visits.get(visits.size() - 1).getCumulativeDemand();
+        if (cumulativeDemand != null) {
+            return cumulativeDemand;
+        }
         int totalDemand = 0;
         for (Visit visit : visits) {
             totalDemand += visit.getDemand();
@@ -102,6 +110,12 @@ public class Vehicle implements LocationAware {
             return 0;
         }
 
+        Visit lastVisit = visits.get(visits.size() - 1);
+        Long cumulativeDrivingTimeSeconds = lastVisit.getCumulativeDrivingTimeSeconds();
+        if (cumulativeDrivingTimeSeconds != null) {
+            return cumulativeDrivingTimeSeconds + lastVisit.getLocation().getDrivingTimeTo(homeLocation);
+        }
+
         long totalDrivingTime = 0;
         Location previousLocation = homeLocation;
 
@@ -13,9 +13,10 @@ import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 import ai.timefold.solver.core.api.solver.SolverStatus;
 
 import org.acme.vehiclerouting.domain.geo.DrivingTimeCalculator;
-import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeMatrix;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -59,6 +60,9 @@ public class VehicleRoutePlan {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private String scoreExplanation;
 
+    @JsonIgnore
+    private DrivingTimeMatrix drivingTimeMatrix;
+
     public VehicleRoutePlan() {
     }
 
@@ -83,12 +87,39 @@ public class VehicleRoutePlan {
         this.endDateTime = endDateTime;
         this.vehicles = vehicles;
         this.visits = visits;
+    }
+
+    /**
+     * Calculate the driving time matrix of all the locations of this plan,
+     * which must be done before solving or scoring it.
+     *
+     * @param drivingTimeCalculator never null
+     */
+    public void initDrivingTimeMatrix(DrivingTimeCalculator drivingTimeCalculator) {
         List<Location> locations = Stream.concat(
                 vehicles.stream().map(Vehicle::getHomeLocation),
                 visits.stream().map(Visit::getLocation)).toList();
-
-        DrivingTimeCalculator drivingTimeCalculator = HaversineDrivingTimeCalculator.getInstance();
-        drivingTimeCalculator.initDrivingTimeMaps(locations);
+        this.drivingTimeMatrix = drivingTimeCalculator.initDrivingTimeMatrix(locations);
+    }
+
+    /**
+     * Shallow copy of this plan with another list of visits.
+     * The copy shares the vehicles, the locations and the driving time matrix with this plan,
+     * so all the given visits must be located in this plan already.
+     *
+     * @param visits never null
+     * @return never null
+     */
+    public VehicleRoutePlan withVisits(List<Visit> visits) {
+        VehicleRoutePlan routePlan = new VehicleRoutePlan(name, score, solverStatus);
+        routePlan.southWestCorner = southWestCorner;
+        routePlan.northEastCorner = northEastCorner;
+        routePlan.startDateTime = startDateTime;
+        routePlan.endDateTime = endDateTime;
+        routePlan.vehicles = vehicles;
+        routePlan.visits = visits;
+        routePlan.drivingTimeMatrix = drivingTimeMatrix;
+        return routePlan;
     }
 
     public String getName() {
@@ -119,6 +150,10 @@ public class VehicleRoutePlan {
         return visits;
     }
 
+    public DrivingTimeMatrix getDrivingTimeMatrix() {
+        return drivingTimeMatrix;
+    }
+
     public HardSoftLongScore getScore() {
         return score;
     }
@@ -2,7 +2,7 @@ package org.acme.vehiclerouting.domain;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneOffset;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
@@ -25,9 +25,11 @@ public class Visit implements LocationAware {
     private String name;
     private Location location;
     private int demand;
-    private LocalDateTime minStartTime;
-    private LocalDateTime maxEndTime;
-    private Duration serviceDuration;
+    // The times are kept as epoch seconds (of UTC, as they have no time zone),
+    // so the arrival time cascade does not allocate. They are converted only at the JSON boundary.
+    private long minStartEpochSecond;
+    private long maxEndEpochSecond;
+    private long serviceDurationSeconds;
 
     @JsonIdentityReference(alwaysAsId = true)
     @InverseRelationShadowVariable(sourceVariableName = "visits")
@@ -35,8 +37,12 @@ public class Visit implements LocationAware {
     @JsonIdentityReference(alwaysAsId = true)
     @PreviousElementShadowVariable(sourceVariableName = "visits")
     private Visit previousVisit;
-    @CascadingUpdateShadowVariable(targetMethodName = "updateArrivalTime")
-    private LocalDateTime arrivalTime;
+    @CascadingUpdateShadowVariable(targetMethodName = "updateShadowVariables")
+    private Long arrivalEpochSecond;
+    @CascadingUpdateShadowVariable(targetMethodName = "updateShadowVariables")
+    private Integer cumulativeDemand;
+    @CascadingUpdateShadowVariable(targetMethodName = "updateShadowVariables")
+    private Long cumulativeDrivingTimeSeconds;
 
     public Visit() {
     }
@@ -47,9 +53,9 @@ public class Visit implements LocationAware {
         this.name = name;
         this.location = location;
         this.demand = demand;
-        this.minStartTime = minStartTime;
-        this.maxEndTime = maxEndTime;
-        this.serviceDuration = serviceDuration;
+        setMinStartTime(minStartTime);
+        setMaxEndTime(maxEndTime);
+        setServiceDuration(serviceDuration);
     }
 
     public String getId() {
@@ -82,15 +88,27 @@ public class Visit implements LocationAware {
     }
 
     public LocalDateTime getMinStartTime() {
-        return minStartTime;
+        return toLocalDateTime(minStartEpochSecond);
+    }
+
+    public void setMinStartTime(LocalDateTime minStartTime) {
+        this.minStartEpochSecond = toEpochSecond(minStartTime);
     }
 
     public LocalDateTime getMaxEndTime() {
-        return maxEndTime;
+        return toLocalDateTime(maxEndEpochSecond);
+    }
+
+    public void setMaxEndTime(LocalDateTime maxEndTime) {
+        this.maxEndEpochSecond = toEpochSecond(maxEndTime);
     }
 
     public Duration getServiceDuration() {
-        return serviceDuration;
+        return Duration.ofSeconds(serviceDurationSeconds);
+    }
+
+    public void setServiceDuration(Duration serviceDuration) {
+        this.serviceDurationSeconds = serviceDuration.getSeconds();
     }
 
     public Vehicle getVehicle() {
@@ -110,11 +128,37 @@ public class Visit implements LocationAware {
     }
 
     public LocalDateTime getArrivalTime() {
-        return arrivalTime;
+        return arrivalEpochSecond == null ? null : toLocalDateTime(arrivalEpochSecond);
     }
 
     public void setArrivalTime(LocalDateTime arrivalTime) {
-        this.arrivalTime = arrivalTime;
+        this.arrivalEpochSecond = arrivalTime == null ? null : toEpochSecond(arrivalTime);
+    }
+
+    /**
+     * @return total demand of this visit and all the visits before it on the same vehicle,
+     *         null if this visit is not assigned to a vehicle
+     */
+    @JsonIgnore
+    public Integer getCumulativeDemand() {
+        return cumulativeDemand;
+    }
+
+    public void setCumulativeDemand(Integer cumulativeDemand) {
+        this.cumulativeDemand = cumulativeDemand;
+    }
+
+    /**
+     * @return driving time from the vehicle home location to this visit, through all the visits before it,
+     *         null if this visit is not assigned to a vehicle
+     */
+    @JsonIgnore
+    public Long getCumulativeDrivingTimeSeconds() {
+        return cumulativeDrivingTimeSeconds;
+    }
+
+    public void setCumulativeDrivingTimeSeconds(Long cumulativeDrivingTimeSeconds) {
+        this.cumulativeDrivingTimeSeconds = cumulativeDrivingTimeSeconds;
     }
 
     // ************************************************************************
@@ -122,49 +166,69 @@ public class Visit implements LocationAware {
     // ************************************************************************
 
     @SuppressWarnings("unused")
-    private void updateArrivalTime() {
+    private void updateShadowVariables() {
         if (previousVisit == null && vehicle == null) {
-            arrivalTime = null;
+            arrivalEpochSecond = null;
+            cumulativeDemand = null;
+            cumulativeDrivingTimeSeconds = null;
             return;
         }
-        LocalDateTime departureTime = previousVisit == null ? vehicle.getDepartureTime() : previousVisit.getDepartureTime();
-        arrivalTime = departureTime != null ? departureTime.plusSeconds(getDrivingTimeSecondsFromPreviousStandstill()) : null;
+        long drivingTimeSeconds = getDrivingTimeSecondsFromPreviousStandstill();
+        if (previousVisit == null) {
+            LocalDateTime departureTime = vehicle.getDepartureTime();
+            arrivalEpochSecond = departureTime != null ? toEpochSecond(departureTime) + drivingTimeSeconds : null;
+            cumulativeDemand = demand;
+            cumulativeDrivingTimeSeconds = drivingTimeSeconds;
+        } else {
+            arrivalEpochSecond = previousVisit.arrivalEpochSecond != null
+                    ? previousVisit.getDepartureEpochSecond() + drivingTimeSeconds
+                    : null;
+            cumulativeDemand = previousVisit.cumulativeDemand + demand;
+            cumulativeDrivingTimeSeconds = previousVisit.cumulativeDrivingTimeSeconds + drivingTimeSeconds;
+        }
     }
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public LocalDateTime getDepartureTime() {
-        if (arrivalTime == null) {
+        if (arrivalEpochSecond == null) {
             return null;
         }
-        return getStartServiceTime().plus(serviceDuration);
+        return toLocalDateTime(getDepartureEpochSecond());
     }
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public LocalDateTime getStartServiceTime() {
-        if (arrivalTime == null) {
+        if (arrivalEpochSecond == null) {
             return null;
         }
-        return arrivalTime.isBefore(minStartTime) ? minStartTime : arrivalTime;
+        return toLocalDateTime(getStartServiceEpochSecond());
+    }
+
+    private long getDepartureEpochSecond() {
+        return getStartServiceEpochSecond() + serviceDurationSeconds;
+    }
+
+    private long getStartServiceEpochSecond() {
+        return Math.max(arrivalEpochSecond, minStartEpochSecond);
     }
 
     @JsonIgnore
     public boolean isServiceFinishedAfterMaxEndTime() {
-        return arrivalTime != null
-                && arrivalTime.plus(serviceDuration).isAfter(maxEndTime);
+        return arrivalEpochSecond != null
+                && arrivalEpochSecond + serviceDurationSeconds > maxEndEpochSecond;
     }
 
     @JsonIgnore
     public long getServiceFinishedDelayInMinutes() {
-        if (arrivalTime == null) {
+        if (arrivalEpochSecond == null) {
             return 0;
         }
-        return roundDurationToNextOrEqualMinutes(Duration.between(maxEndTime, arrivalTime.plus(serviceDuration)));
+        return roundSecondsToNextOrEqualMinutes(arrivalEpochSecond + serviceDurationSeconds - maxEndEpochSecond);
     }
 
-    private static long roundDurationToNextOrEqualMinutes(Duration duration) {
-        var remainder = duration.minus(duration.truncatedTo(ChronoUnit.MINUTES));
-        var minutes = duration.toMinutes();
-        if (remainder.equals(Duration.ZERO)) {
+    private static long roundSecondsToNextOrEqualMinutes(long seconds) {
+        long minutes = seconds / 60;
+        if (seconds % 60 == 0) {
             return minutes;
         }
         return minutes + 1;
@@ -191,6 +255,14 @@ public class Visit implements LocationAware {
         return getDrivingTimeSecondsFromPreviousStandstill();
     }
 
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
     @Override
     public String toString() {
         return id;
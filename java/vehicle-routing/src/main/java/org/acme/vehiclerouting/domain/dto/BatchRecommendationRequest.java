@@ -0,0 +1,8 @@
+package org.acme.vehiclerouting.domain.dto;
+
+import java.util.List;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+
+public record BatchRecommendationRequest(VehicleRoutePlan solution, List<String> visitIds) {
+}
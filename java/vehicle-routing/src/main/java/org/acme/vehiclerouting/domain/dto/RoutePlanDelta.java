@@ -0,0 +1,11 @@
+package org.acme.vehiclerouting.domain.dto;
+
+import java.util.List;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+
+/**
+ * The new best score, and only the vehicles whose visits have changed since the previous delta.
+ */
+public record RoutePlanDelta(HardSoftLongScore score, List<VehicleRouteDelta> vehicles) {
+}
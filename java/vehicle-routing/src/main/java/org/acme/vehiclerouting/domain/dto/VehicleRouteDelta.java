@@ -0,0 +1,6 @@
+package org.acme.vehiclerouting.domain.dto;
+
+import java.util.List;
+
+public record VehicleRouteDelta(String vehicleId, List<String> visitIds, int totalDemand, long totalDrivingTimeSeconds) {
+}
@@ -0,0 +1,9 @@
+package org.acme.vehiclerouting.domain.dto;
+
+import java.util.List;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import ai.timefold.solver.core.api.solver.RecommendedFit;
+
+public record VisitRecommendation(String visitId, List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>> fits) {
+}
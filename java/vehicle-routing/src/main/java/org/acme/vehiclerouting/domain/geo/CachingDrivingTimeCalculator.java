@@ -0,0 +1,270 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates another {@link DrivingTimeCalculator} and caches its bulk driving time matrices,
+ * keyed by a fingerprint of the ordered list of location coordinates.
+ * <p>
+ * The matrices are kept in a bounded in-memory tier, evicting the least recently used matrix first.
+ * Optionally, they are also written as plain files to a directory on disk and read back into memory,
+ * so a resubmitted plan skips the O(N²) computation even after a restart.
+ * That directory is bounded too, deleting the least recently used files first.
+ * <p>
+ * The cached matrices are shared by all plans with the same locations,
+ * which is safe because a {@link DrivingTimeMatrix} cannot be modified outside of this package.
+ */
+public final class CachingDrivingTimeCalculator implements DrivingTimeCalculator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDrivingTimeCalculator.class);
+    private static final String FILE_SUFFIX = ".matrix";
+    // Read and write the files in blocks, instead of holding a second copy of the matrix in a byte array.
+    private static final int IO_BLOCK_BYTES = 64 * 1024;
+
+    private final DrivingTimeCalculator delegate;
+    private final long maxMemoryBytes;
+    private final Path cacheDirectory;
+    private final long maxDiskBytes;
+
+    // Access-ordered, so the iteration starts with the least recently used matrix.
+    private final LinkedHashMap<String, DrivingTimeMatrix> fingerprintToMatrix = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0L;
+
+    /**
+     * @param delegate never null, calculates the matrices missing in the cache
+     * @param maxMemoryBytes maximum size of all the matrices kept in memory
+     * @param cacheDirectory null if the matrices should not be persisted on disk
+     * @param maxDiskBytes maximum size of all the matrix files kept in the cache directory
+     */
+    public CachingDrivingTimeCalculator(DrivingTimeCalculator delegate, long maxMemoryBytes, Path cacheDirectory,
+            long maxDiskBytes) {
+        if (maxMemoryBytes < 0L) {
+            throw new IllegalArgumentException("The maxMemoryBytes (%d) must not be negative.".formatted(maxMemoryBytes));
+        }
+        if (maxDiskBytes < 0L) {
+            throw new IllegalArgumentException("The maxDiskBytes (%d) must not be negative.".formatted(maxDiskBytes));
+        }
+        this.delegate = delegate;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.cacheDirectory = cacheDirectory;
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    @Override
+    public long calculateDrivingTime(Location from, Location to) {
+        return delegate.calculateDrivingTime(from, to);
+    }
+
+    @Override
+    public DrivingTimeMatrix calculateBulkDrivingTime(List<Location> locations) {
+        String fingerprint = fingerprint(locations);
+        DrivingTimeMatrix drivingTimeMatrix = getFromMemory(fingerprint);
+        if (drivingTimeMatrix != null) {
+            return drivingTimeMatrix;
+        }
+        if (cacheDirectory != null) {
+            drivingTimeMatrix = readFromDisk(fingerprint, locations.size());
+        }
+        if (drivingTimeMatrix == null) {
+            drivingTimeMatrix = delegate.calculateBulkDrivingTime(locations);
+            if (cacheDirectory != null) {
+                writeToDisk(fingerprint, drivingTimeMatrix);
+            }
+        }
+        putInMemory(fingerprint, drivingTimeMatrix);
+        return drivingTimeMatrix;
+    }
+
+    // ************************************************************************
+    // In-memory tier
+    // ************************************************************************
+
+    private synchronized DrivingTimeMatrix getFromMemory(String fingerprint) {
+        return fingerprintToMatrix.get(fingerprint);
+    }
+
+    private synchronized void putInMemory(String fingerprint, DrivingTimeMatrix drivingTimeMatrix) {
+        long matrixBytes = memoryBytes(drivingTimeMatrix);
+        if (matrixBytes > maxMemoryBytes) {
+            return;
+        }
+        DrivingTimeMatrix previousMatrix = fingerprintToMatrix.put(fingerprint, drivingTimeMatrix);
+        if (previousMatrix != null) {
+            memoryBytes -= memoryBytes(previousMatrix);
+        }
+        memoryBytes += matrixBytes;
+        Iterator<DrivingTimeMatrix> iterator = fingerprintToMatrix.values().iterator();
+        while (memoryBytes > maxMemoryBytes) {
+            memoryBytes -= memoryBytes(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static long memoryBytes(DrivingTimeMatrix drivingTimeMatrix) {
+        return (long) drivingTimeMatrix.getDrivingTimeSecondsArray().length * Integer.BYTES;
+    }
+
+    // ************************************************************************
+    // On-disk tier
+    // ************************************************************************
+
+    private DrivingTimeMatrix readFromDisk(String fingerprint, int size) {
+        Path file = cacheDirectory.resolve(fingerprint + FILE_SUFFIX);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long expectedFileSize = Integer.BYTES + (long) size * size * Integer.BYTES;
+            if (channel.size() != expectedFileSize) {
+                LOGGER.warn("Ignoring the driving time cache file ({}) of an unexpected size ({}).", file, channel.size());
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(IO_BLOCK_BYTES);
+            buffer.limit(Integer.BYTES);
+            readFully(channel, buffer);
+            if (buffer.flip().getInt() != size) {
+                LOGGER.warn("Ignoring the driving time cache file ({}) of an unexpected matrix size.", file);
+                return null;
+            }
+            int[] drivingTimeSeconds = new int[size * size];
+            for (int offset = 0; offset < drivingTimeSeconds.length;) {
+                int length = Math.min(IO_BLOCK_BYTES / Integer.BYTES, drivingTimeSeconds.length - offset);
+                buffer.clear().limit(length * Integer.BYTES);
+                readFully(channel, buffer);
+                buffer.flip().asIntBuffer().get(drivingTimeSeconds, offset, length);
+                offset += length;
+            }
+            // The modification time orders the files from least to most recently used for the eviction.
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new DrivingTimeMatrix(size, drivingTimeSeconds);
+        } catch (IOException e) {
+            LOGGER.warn("Failed reading the driving time cache file ({}).", file, e);
+            return null;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of file.");
+            }
+        }
+    }
+
+    private void writeToDisk(String fingerprint, DrivingTimeMatrix drivingTimeMatrix) {
+        long fileSize = Integer.BYTES + memoryBytes(drivingTimeMatrix);
+        if (fileSize > maxDiskBytes) {
+            return;
+        }
+        int[] drivingTimeSeconds = drivingTimeMatrix.getDrivingTimeSecondsArray();
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path temporaryFile = Files.createTempFile(cacheDirectory, fingerprint, ".tmp");
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(IO_BLOCK_BYTES);
+                buffer.putInt(drivingTimeMatrix.getSize());
+                for (int offset = 0; offset < drivingTimeSeconds.length;) {
+                    int length = Math.min(buffer.remaining() / Integer.BYTES, drivingTimeSeconds.length - offset);
+                    buffer.asIntBuffer().put(drivingTimeSeconds, offset, length);
+                    buffer.position(buffer.position() + length * Integer.BYTES);
+                    writeFully(channel, buffer.flip());
+                    buffer.clear();
+                    offset += length;
+                }
+                if (drivingTimeSeconds.length == 0) {
+                    writeFully(channel, buffer.flip());
+                }
+                channel.force(false);
+            }
+            // Other instances sharing the directory never see a partially written file.
+            Files.move(temporaryFile, cacheDirectory.resolve(fingerprint + FILE_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Failed writing the driving time cache file for fingerprint ({}).", fingerprint, e);
+            return;
+        }
+        evictFromDisk();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private synchronized void evictFromDisk() {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(cacheDirectory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted(Comparator.comparing(CachingDrivingTimeCalculator::lastModifiedTime).reversed())
+                    .toList();
+        } catch (IOException e) {
+            LOGGER.warn("Failed listing the driving time cache directory ({}).", cacheDirectory, e);
+            return;
+        }
+        // Keep the most recently used files that fit, another instance sharing the directory may have added some.
+        long diskBytes = 0L;
+        for (Path file : files) {
+            try {
+                diskBytes += Files.size(file);
+                if (diskBytes > maxDiskBytes) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed evicting the driving time cache file ({}).", file, e);
+            }
+        }
+    }
+
+    private static FileTime lastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            // Deleted in the meantime, evict it first.
+            return FileTime.fromMillis(0L);
+        }
+    }
+
+    // ************************************************************************
+    // Fingerprint
+    // ************************************************************************
+
+    private String fingerprint(List<Location> locations) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 algorithm is not available.", e);
+        }
+        // Different calculators produce different matrices for the same locations.
+        digest.update(delegate.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + locations.size() * 2 * Double.BYTES);
+        buffer.putInt(locations.size());
+        for (Location location : locations) {
+            buffer.putDouble(location.getLatitude());
+            buffer.putDouble(location.getLongitude());
+        }
+        digest.update(buffer.flip());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -1,9 +1,7 @@
 package org.acme.vehiclerouting.domain.geo;
 
 import java.util.Collection;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.List;
 
 import org.acme.vehiclerouting.domain.Location;
 
@@ -19,30 +17,36 @@ public interface DrivingTimeCalculator {
     long calculateDrivingTime(Location from, Location to);
 
     /**
-     * Bulk calculation of driving time.
+     * Bulk calculation of driving time between all the given locations.
      * Typically, much more scalable than {@link #calculateDrivingTime(Location, Location)} iteratively.
      *
-     * @param fromLocations never null
-     * @param toLocations never null
+     * @param locations never null, the index of each location in the list is its index in the matrix
      * @return never null
      */
-    default Map<Location, Map<Location, Long>> calculateBulkDrivingTime(
-            Collection<Location> fromLocations,
-            Collection<Location> toLocations) {
-        return fromLocations.stream().collect(Collectors.toMap(
-                Function.identity(),
-                from -> toLocations.stream().collect(Collectors.toMap(
-                        Function.identity(),
-                        to -> calculateDrivingTime(from, to)))));
+    default DrivingTimeMatrix calculateBulkDrivingTime(List<Location> locations) {
+        int size = locations.size();
+        DrivingTimeMatrix drivingTimeMatrix = new DrivingTimeMatrix(size);
+        for (int fromIndex = 0; fromIndex < size; fromIndex++) {
+            Location from = locations.get(fromIndex);
+            for (int toIndex = 0; toIndex < size; toIndex++) {
+                drivingTimeMatrix.setDrivingTime(fromIndex, toIndex, calculateDrivingTime(from, locations.get(toIndex)));
+            }
+        }
+        return drivingTimeMatrix;
     }
 
     /**
-     * Calculate driving time matrix for the given list of locations and assign driving time maps accordingly.
+     * Calculate driving time matrix for the given list of locations and assign it to the locations accordingly.
      *
      * @param locations locations list
+     * @return never null, the matrix shared by all the given locations
      */
-    default void initDrivingTimeMaps(Collection<Location> locations) {
-        Map<Location, Map<Location, Long>> drivingTimeMatrix = calculateBulkDrivingTime(locations, locations);
-        locations.forEach(location -> location.setDrivingTimeSeconds(drivingTimeMatrix.get(location)));
+    default DrivingTimeMatrix initDrivingTimeMatrix(Collection<Location> locations) {
+        List<Location> distinctLocations = locations.stream().distinct().toList();
+        DrivingTimeMatrix drivingTimeMatrix = calculateBulkDrivingTime(distinctLocations);
+        for (int i = 0; i < distinctLocations.size(); i++) {
+            distinctLocations.get(i).setDrivingTimeMatrix(drivingTimeMatrix, i);
+        }
+        return drivingTimeMatrix;
     }
 }
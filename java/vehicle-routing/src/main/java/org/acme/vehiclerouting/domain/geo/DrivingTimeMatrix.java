@@ -0,0 +1,67 @@
+package org.acme.vehiclerouting.domain.geo;
+
+/**
+ * Dense square matrix of driving times (in seconds) between all locations of a route plan.
+ * <p>
+ * Every location of the plan is given an index in {@code [0, size)},
+ * and the driving time from location {@code i} to location {@code j} is stored at {@code i * size + j}
+ * of a single primitive array.
+ * Compared to a map per location, this avoids boxing and hashing on every lookup
+ * and keeps the whole matrix in one contiguous block of memory.
+ * <p>
+ * Only the {@link DrivingTimeCalculator} implementations fill the matrix,
+ * so it can be shared by all plans with the same locations.
+ */
+public final class DrivingTimeMatrix {
+
+    private final int size;
+    private final int[] drivingTimeSeconds;
+
+    public DrivingTimeMatrix(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size (%d) must not be negative.".formatted(size));
+        }
+        this.size = size;
+        this.drivingTimeSeconds = new int[Math.multiplyExact(size, size)];
+    }
+
+    DrivingTimeMatrix(int size, int[] drivingTimeSeconds) {
+        if (drivingTimeSeconds.length != size * size) {
+            throw new IllegalArgumentException("The driving time array length (%d) does not match the size (%d)."
+                    .formatted(drivingTimeSeconds.length, size));
+        }
+        this.size = size;
+        this.drivingTimeSeconds = drivingTimeSeconds;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    int[] getDrivingTimeSecondsArray() {
+        return drivingTimeSeconds;
+    }
+
+    /**
+     * Driving time between two locations in seconds.
+     *
+     * @param fromIndex index of the starting location
+     * @param toIndex index of the target location
+     * @return driving time in seconds
+     */
+    public long getDrivingTime(int fromIndex, int toIndex) {
+        return drivingTimeSeconds[fromIndex * size + toIndex];
+    }
+
+    /**
+     * Set the driving time between two locations.
+     *
+     * @param fromIndex index of the starting location
+     * @param toIndex index of the target location
+     * @param drivingTimeSeconds driving time in seconds, must fit into an {@code int}
+     */
+    void setDrivingTime(int fromIndex, int toIndex, long drivingTimeSeconds) {
+        this.drivingTimeSeconds[fromIndex * size + toIndex] = Math.toIntExact(drivingTimeSeconds);
+    }
+
+}
@@ -1,5 +1,8 @@
 package org.acme.vehiclerouting.domain.geo;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
 import org.acme.vehiclerouting.domain.Location;
 
 /**
@@ -14,6 +17,8 @@ public final class HaversineDrivingTimeCalculator implements DrivingTimeCalculat
 
     private static final int EARTH_RADIUS_IN_M = 6371000;
     private static final int TWICE_EARTH_RADIUS_IN_M = 2 * EARTH_RADIUS_IN_M;
+    // Number of rows and columns of a single tile of the bulk matrix computation.
+    private static final int BLOCK_SIZE = 64;
 
     static long metersToDrivingSeconds(long meters) {
         return Math.round((double) meters / AVERAGE_SPEED_KMPH * 3.6);
@@ -37,14 +42,64 @@ public final class HaversineDrivingTimeCalculator implements DrivingTimeCalculat
         return metersToDrivingSeconds(calculateDistance(fromCartesian, toCartesian));
     }
 
+    /**
+     * Converts every location to Cartesian coordinates just once
+     * and fills the matrix in parallel, tile by tile, on the common fork-join pool.
+     * As the Haversine distance is symmetric, only the tiles on and above the diagonal are calculated,
+     * each of them also filling its mirror tile below the diagonal.
+     */
+    @Override
+    public DrivingTimeMatrix calculateBulkDrivingTime(List<Location> locations) {
+        int size = locations.size();
+        double[] cartesianCoordinates = new double[size * 3];
+        for (int i = 0; i < size; i++) {
+            CartesianCoordinate cartesian = locationToCartesian(locations.get(i));
+            cartesianCoordinates[i * 3] = cartesian.x;
+            cartesianCoordinates[i * 3 + 1] = cartesian.y;
+            cartesianCoordinates[i * 3 + 2] = cartesian.z;
+        }
+
+        DrivingTimeMatrix drivingTimeMatrix = new DrivingTimeMatrix(size);
+        int blockCount = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        IntStream.range(0, blockCount * blockCount)
+                .parallel()
+                .filter(block -> block / blockCount <= block % blockCount)
+                .forEach(block -> fillBlock(drivingTimeMatrix, cartesianCoordinates,
+                        (block / blockCount) * BLOCK_SIZE, (block % blockCount) * BLOCK_SIZE));
+        return drivingTimeMatrix;
+    }
+
+    private void fillBlock(DrivingTimeMatrix drivingTimeMatrix, double[] cartesianCoordinates,
+            int fromStart, int toStart) {
+        int size = drivingTimeMatrix.getSize();
+        int fromEnd = Math.min(fromStart + BLOCK_SIZE, size);
+        int toEnd = Math.min(toStart + BLOCK_SIZE, size);
+        for (int fromIndex = fromStart; fromIndex < fromEnd; fromIndex++) {
+            double fromX = cartesianCoordinates[fromIndex * 3];
+            double fromY = cartesianCoordinates[fromIndex * 3 + 1];
+            double fromZ = cartesianCoordinates[fromIndex * 3 + 2];
+            for (int toIndex = Math.max(toStart, fromIndex + 1); toIndex < toEnd; toIndex++) {
+                long drivingTime = metersToDrivingSeconds(calculateDistance(fromX, fromY, fromZ,
+                        cartesianCoordinates[toIndex * 3],
+                        cartesianCoordinates[toIndex * 3 + 1],
+                        cartesianCoordinates[toIndex * 3 + 2]));
+                drivingTimeMatrix.setDrivingTime(fromIndex, toIndex, drivingTime);
+                drivingTimeMatrix.setDrivingTime(toIndex, fromIndex, drivingTime);
+            }
+        }
+    }
+
     private long calculateDistance(CartesianCoordinate from, CartesianCoordinate to) {
         if (from.equals(to)) {
             return 0L;
         }
+        return calculateDistance(from.x, from.y, from.z, to.x, to.y, to.z);
+    }
 
-        double dX = from.x - to.x;
-        double dY = from.y - to.y;
-        double dZ = from.z - to.z;
+    private static long calculateDistance(double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        double dX = fromX - toX;
+        double dY = fromY - toY;
+        double dZ = fromZ - toZ;
         double r = Math.sqrt((dX * dX) + (dY * dY) + (dZ * dZ));
         return Math.round(TWICE_EARTH_RADIUS_IN_M * Math.asin(r));
     }
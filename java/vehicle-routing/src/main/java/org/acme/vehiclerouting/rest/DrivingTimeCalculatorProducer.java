@@ -0,0 +1,37 @@
+package org.acme.vehiclerouting.rest;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import org.acme.vehiclerouting.domain.geo.CachingDrivingTimeCalculator;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeCalculator;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Makes every submitted route plan reuse the driving time matrix of a previously submitted plan
+ * with the same locations, instead of recalculating it.
+ */
+@ApplicationScoped
+public class DrivingTimeCalculatorProducer {
+
+    @ConfigProperty(name = "vehicle-routing.driving-time-cache.max-memory-mb", defaultValue = "256")
+    long maxMemoryMegabytes;
+
+    @ConfigProperty(name = "vehicle-routing.driving-time-cache.directory")
+    Optional<Path> cacheDirectory;
+
+    @ConfigProperty(name = "vehicle-routing.driving-time-cache.max-disk-mb", defaultValue = "1024")
+    long maxDiskMegabytes;
+
+    @Produces
+    @Singleton
+    DrivingTimeCalculator drivingTimeCalculator() {
+        return new CachingDrivingTimeCalculator(HaversineDrivingTimeCalculator.getInstance(),
+                maxMemoryMegabytes * 1024 * 1024, cacheDirectory.orElse(null), maxDiskMegabytes * 1024 * 1024);
+    }
+}
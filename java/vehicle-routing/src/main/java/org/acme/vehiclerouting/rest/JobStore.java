@@ -0,0 +1,328 @@
+package org.acme.vehiclerouting.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeCalculator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps the route plans of the submitted jobs.
+ * <p>
+ * A job is only eligible for eviction once it is finished, either with its final best solution or an exception.
+ * Finished jobs are evicted when they outlive the time to live,
+ * or the oldest ones first when there are more jobs than the maximum size.
+ * Running jobs are never evicted, so a new job is rejected instead when the maximum size of running jobs is reached.
+ * A job that ends without a final best solution, such as a job cancelled before it started solving,
+ * must therefore be finished with {@link #finishIfRunning(String)}.
+ * Depending on the {@link FinishedJobPolicy}, the final best solution of a finished job is either kept in memory
+ * or spilled to disk as gzipped JSON and read back on demand.
+ * The last spilled job read back is kept, so polling the same finished job does not deserialize it every time.
+ */
+@ApplicationScoped
+public class JobStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobStore.class);
+
+    public enum FinishedJobPolicy {
+        KEEP_IN_MEMORY,
+        SPILL_TO_DISK
+    }
+
+    private final int maxSize;
+    private final Duration timeToLive;
+    private final FinishedJobPolicy finishedJobPolicy;
+    private final Path spillDirectory;
+    private final ObjectMapper objectMapper;
+    private final DrivingTimeCalculator drivingTimeCalculator;
+    private final Clock clock;
+
+    private final ConcurrentMap<String, StoredJob> jobIdToJob = new ConcurrentHashMap<>();
+    private volatile ReadSpilledJob lastReadSpilledJob;
+
+    @Inject
+    public JobStore(@ConfigProperty(name = "vehicle-routing.jobs.max-size", defaultValue = "1000") int maxSize,
+            @ConfigProperty(name = "vehicle-routing.jobs.time-to-live", defaultValue = "1h") Duration timeToLive,
+            @ConfigProperty(name = "vehicle-routing.jobs.finished-job-policy",
+                    defaultValue = "KEEP_IN_MEMORY") FinishedJobPolicy finishedJobPolicy,
+            @ConfigProperty(name = "vehicle-routing.jobs.spill-directory") Optional<Path> spillDirectory,
+            ObjectMapper objectMapper, DrivingTimeCalculator drivingTimeCalculator) {
+        this(maxSize, timeToLive, finishedJobPolicy, spillDirectory.orElse(null), objectMapper, drivingTimeCalculator,
+                Clock.systemUTC());
+    }
+
+    JobStore(int maxSize, Duration timeToLive, FinishedJobPolicy finishedJobPolicy, Path spillDirectory,
+            ObjectMapper objectMapper, DrivingTimeCalculator drivingTimeCalculator, Clock clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maxSize (%d) must be greater than zero.".formatted(maxSize));
+        }
+        if (finishedJobPolicy == FinishedJobPolicy.SPILL_TO_DISK && spillDirectory == null) {
+            throw new IllegalArgumentException("The finishedJobPolicy (%s) requires a spillDirectory."
+                    .formatted(finishedJobPolicy));
+        }
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.finishedJobPolicy = finishedJobPolicy;
+        this.spillDirectory = spillDirectory;
+        this.objectMapper = objectMapper;
+        this.drivingTimeCalculator = drivingTimeCalculator;
+        this.clock = clock;
+    }
+
+    public Collection<String> getJobIds() {
+        evict(0);
+        return jobIdToJob.keySet();
+    }
+
+    /**
+     * @param jobId never null
+     * @return null if there is no such job or it has been evicted
+     */
+    public Job get(String jobId) {
+        StoredJob storedJob = jobIdToJob.get(jobId);
+        if (storedJob == null) {
+            return null;
+        }
+        if (storedJob.isExpired(clock.instant(), timeToLive)) {
+            remove(jobId);
+            return null;
+        }
+        Job job = storedJob.job == null ? readSpilledJob(jobId) : storedJob.job;
+        return storedJob.scoreExplanation == null ? job : job.withScoreExplanation(storedJob.scoreExplanation);
+    }
+
+    /**
+     * Store the initial problem of a new job, evicting finished jobs to make room for it if needed.
+     *
+     * @return false if the job is rejected, because all the jobs in the store are still running
+     */
+    public synchronized boolean add(String jobId, VehicleRoutePlan problem) {
+        evict(1);
+        if (jobIdToJob.size() >= maxSize) {
+            return false;
+        }
+        jobIdToJob.put(jobId, StoredJob.ofRunning(Job.ofRoutePlan(problem)));
+        return true;
+    }
+
+    /**
+     * Store the score explanation of a job returned by {@link #get(String)},
+     * unless the job has stored a new best solution in the meantime.
+     * It is kept until the next best solution, even if the job has been spilled to disk.
+     */
+    public void putScoreExplanation(String jobId, Job job, String scoreExplanation) {
+        jobIdToJob.computeIfPresent(jobId,
+                (jobId_, storedJob) -> storedJob.hasRoutePlan(job) ? storedJob.withScoreExplanation(scoreExplanation)
+                        : storedJob);
+    }
+
+    /**
+     * Store the best solution so far of a running job.
+     */
+    public void putRoutePlan(String jobId, VehicleRoutePlan routePlan) {
+        jobIdToJob.replace(jobId, StoredJob.ofRunning(Job.ofRoutePlan(routePlan)));
+    }
+
+    /**
+     * Store the final best solution of a job, making it eligible for eviction.
+     */
+    public void finish(String jobId, VehicleRoutePlan routePlan) {
+        Instant finishedAt = clock.instant();
+        if (finishedJobPolicy == FinishedJobPolicy.SPILL_TO_DISK && spill(jobId, routePlan)) {
+            jobIdToJob.put(jobId, StoredJob.ofSpilled(finishedAt));
+        } else {
+            jobIdToJob.put(jobId, StoredJob.ofFinished(Job.ofRoutePlan(routePlan), finishedAt));
+        }
+        evict(0);
+    }
+
+    /**
+     * Finish a job with its best solution so far, unless it has been finished in the meantime.
+     *
+     * @return true if the job was still running
+     */
+    public boolean finishIfRunning(String jobId) {
+        StoredJob storedJob = jobIdToJob.get(jobId);
+        if (storedJob == null || storedJob.finishedAt != null) {
+            return false;
+        }
+        // Only replaces the job if its final best solution has not been stored concurrently.
+        if (!jobIdToJob.replace(jobId, storedJob, StoredJob.ofFinished(storedJob.job, clock.instant()))) {
+            return false;
+        }
+        evict(0);
+        return true;
+    }
+
+    /**
+     * Store the exception that has ended a job, making it eligible for eviction.
+     */
+    public void fail(String jobId, Throwable exception) {
+        StoredJob previousJob = jobIdToJob.put(jobId, StoredJob.ofFinished(Job.ofException(exception), clock.instant()));
+        if (previousJob != null && previousJob.job == null) {
+            deleteSpilledJob(jobId);
+        }
+        evict(0);
+    }
+
+    // ************************************************************************
+    // Eviction
+    // ************************************************************************
+
+    /**
+     * @param reservedCount the number of jobs about to be added
+     */
+    private void evict(int reservedCount) {
+        Instant now = clock.instant();
+        jobIdToJob.forEach((jobId, storedJob) -> {
+            if (storedJob.isExpired(now, timeToLive)) {
+                remove(jobId);
+            }
+        });
+        int excessCount = jobIdToJob.size() + reservedCount - maxSize;
+        if (excessCount > 0) {
+            jobIdToJob.entrySet().stream()
+                    .filter(entry -> entry.getValue().finishedAt != null)
+                    .sorted(Comparator.comparing(entry -> entry.getValue().finishedAt))
+                    .limit(excessCount)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(this::remove);
+        }
+    }
+
+    private void remove(String jobId) {
+        StoredJob storedJob = jobIdToJob.remove(jobId);
+        if (storedJob != null && storedJob.job == null) {
+            deleteSpilledJob(jobId);
+        }
+    }
+
+    // ************************************************************************
+    // Spilling to disk
+    // ************************************************************************
+
+    private boolean spill(String jobId, VehicleRoutePlan routePlan) {
+        try {
+            Files.createDirectories(spillDirectory);
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(getSpillFile(jobId)))) {
+                objectMapper.writeValue(outputStream, routePlan);
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Failed spilling jobId ({}) to disk, keeping it in memory instead.", jobId, e);
+            return false;
+        }
+    }
+
+    private Job readSpilledJob(String jobId) {
+        ReadSpilledJob readSpilledJob = lastReadSpilledJob;
+        if (readSpilledJob != null && readSpilledJob.jobId().equals(jobId)) {
+            return readSpilledJob.job();
+        }
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(getSpillFile(jobId)))) {
+            VehicleRoutePlan routePlan = objectMapper.readValue(inputStream, VehicleRoutePlan.class);
+            routePlan.initDrivingTimeMatrix(drivingTimeCalculator);
+            Job job = Job.ofRoutePlan(routePlan);
+            lastReadSpilledJob = new ReadSpilledJob(jobId, job);
+            return job;
+        } catch (IOException e) {
+            return Job.ofException(new IllegalStateException("Failed reading the spilled route plan.", e));
+        }
+    }
+
+    private void deleteSpilledJob(String jobId) {
+        ReadSpilledJob readSpilledJob = lastReadSpilledJob;
+        if (readSpilledJob != null && readSpilledJob.jobId().equals(jobId)) {
+            lastReadSpilledJob = null;
+        }
+        try {
+            Files.deleteIfExists(getSpillFile(jobId));
+        } catch (IOException e) {
+            LOGGER.warn("Failed deleting the spilled jobId ({}).", jobId, e);
+        }
+    }
+
+    private Path getSpillFile(String jobId) {
+        return spillDirectory.resolve(jobId + ".json.gz");
+    }
+
+    /**
+     * @param scoreExplanation null if the score of the route plan has not been explained yet
+     */
+    public record Job(VehicleRoutePlan routePlan, Throwable exception, String scoreExplanation) {
+
+        static Job ofRoutePlan(VehicleRoutePlan routePlan) {
+            return new Job(routePlan, null, null);
+        }
+
+        static Job ofException(Throwable exception) {
+            return new Job(null, exception, null);
+        }
+
+        Job withScoreExplanation(String scoreExplanation) {
+            return new Job(routePlan, exception, scoreExplanation);
+        }
+
+    }
+
+    private record ReadSpilledJob(String jobId, Job job) {
+
+    }
+
+    /**
+     * @param job null if it has been spilled to disk
+     * @param finishedAt null if the job is still running
+     * @param scoreExplanation null if the score of the route plan has not been explained yet
+     */
+    private record StoredJob(Job job, Instant finishedAt, String scoreExplanation) {
+
+        static StoredJob ofRunning(Job job) {
+            return new StoredJob(job, null, null);
+        }
+
+        static StoredJob ofFinished(Job job, Instant finishedAt) {
+            return new StoredJob(job, finishedAt, null);
+        }
+
+        static StoredJob ofSpilled(Instant finishedAt) {
+            return new StoredJob(null, finishedAt, null);
+        }
+
+        StoredJob withScoreExplanation(String scoreExplanation) {
+            return new StoredJob(job, finishedAt, scoreExplanation);
+        }
+
+        boolean hasRoutePlan(Job job) {
+            // A spilled job is finished, so it never changes its route plan anymore.
+            return this.job == null ? job.routePlan() != null : this.job.routePlan() == job.routePlan();
+        }
+
+        boolean isExpired(Instant now, Duration timeToLive) {
+            return finishedAt != null && finishedAt.plus(timeToLive).isBefore(now);
+        }
+
+    }
+}
@@ -0,0 +1,138 @@
+package org.acme.vehiclerouting.rest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+
+import org.acme.vehiclerouting.domain.Vehicle;
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.Visit;
+import org.acme.vehiclerouting.domain.dto.RoutePlanDelta;
+import org.acme.vehiclerouting.domain.dto.VehicleRouteDelta;
+
+/**
+ * Streams the best solutions of a single job to its subscribers as server-sent {@link RoutePlanDelta} events.
+ * <p>
+ * A new subscriber first receives all the vehicles, and then only the vehicles whose visits have changed.
+ * While an event is still being sent, newer best solutions do not queue up:
+ * only the latest one is kept, and it is published as soon as the previous event is sent.
+ * Once the job is finished, the final best solution is published and all the subscribers are closed.
+ */
+final class RoutePlanEventStream {
+
+    static final String EVENT_NAME = "best-solution";
+
+    private final Sse sse;
+    private final SseBroadcaster broadcaster;
+
+    private final AtomicReference<VehicleRoutePlan> pendingSolution = new AtomicReference<>();
+    private final AtomicBoolean publishing = new AtomicBoolean(false);
+    private volatile boolean completed = false;
+
+    // The state that has been published to all subscribers so far, guarded by this.
+    private HardSoftLongScore publishedScore;
+    private final Map<String, VehicleRouteDelta> vehicleIdToPublishedRoute = new LinkedHashMap<>();
+
+    RoutePlanEventStream(Sse sse, VehicleRoutePlan initialSolution) {
+        this.sse = sse;
+        this.broadcaster = sse.newBroadcaster();
+        calculateDelta(initialSolution);
+    }
+
+    synchronized void subscribe(SseEventSink sink) {
+        sink.send(createSnapshotEvent());
+        broadcaster.register(sink);
+    }
+
+    void publish(VehicleRoutePlan solution) {
+        pendingSolution.set(solution);
+        if (publishing.compareAndSet(false, true)) {
+            publishPending();
+        }
+    }
+
+    /**
+     * Publish the final best solution and close all subscribers afterwards.
+     *
+     * @param finalSolution null if the job has ended without a solution
+     */
+    void complete(VehicleRoutePlan finalSolution) {
+        completed = true;
+        if (finalSolution != null) {
+            pendingSolution.set(finalSolution);
+        }
+        if (publishing.compareAndSet(false, true)) {
+            publishPending();
+        }
+    }
+
+    /**
+     * Send the whole route plan to a subscriber of a job that is no longer solving, and close it.
+     */
+    static void sendFinalSolution(Sse sse, SseEventSink sink, VehicleRoutePlan solution) {
+        RoutePlanEventStream eventStream = new RoutePlanEventStream(sse, solution);
+        sink.send(eventStream.createSnapshotEvent())
+                .whenComplete((ignored, exception) -> sink.close());
+    }
+
+    private void publishPending() {
+        VehicleRoutePlan solution = pendingSolution.getAndSet(null);
+        if (solution == null) {
+            if (completed) {
+                broadcaster.close();
+                return;
+            }
+            publishing.set(false);
+            // A solution published or a completion after the checks above must not wait for the next solution,
+            // because its compareAndSet() may have failed while this thread was still publishing.
+            if ((completed || pendingSolution.get() != null) && publishing.compareAndSet(false, true)) {
+                publishPending();
+            }
+            return;
+        }
+        synchronized (this) {
+            RoutePlanDelta delta = calculateDelta(solution);
+            broadcaster.broadcast(createEvent(delta))
+                    .whenComplete((ignored, exception) -> publishPending());
+        }
+    }
+
+    private synchronized RoutePlanDelta calculateDelta(VehicleRoutePlan solution) {
+        List<VehicleRouteDelta> changedRoutes = new ArrayList<>();
+        for (Vehicle vehicle : solution.getVehicles()) {
+            List<String> visitIds = vehicle.getVisits().stream().map(Visit::getId).toList();
+            VehicleRouteDelta publishedRoute = vehicleIdToPublishedRoute.get(vehicle.getId());
+            if (publishedRoute == null || !publishedRoute.visitIds().equals(visitIds)) {
+                VehicleRouteDelta route = new VehicleRouteDelta(vehicle.getId(), visitIds, vehicle.getTotalDemand(),
+                        vehicle.getTotalDrivingTimeSeconds());
+                vehicleIdToPublishedRoute.put(vehicle.getId(), route);
+                changedRoutes.add(route);
+            }
+        }
+        publishedScore = solution.getScore();
+        return new RoutePlanDelta(publishedScore, changedRoutes);
+    }
+
+    private synchronized OutboundSseEvent createSnapshotEvent() {
+        return createEvent(new RoutePlanDelta(publishedScore, List.copyOf(vehicleIdToPublishedRoute.values())));
+    }
+
+    private OutboundSseEvent createEvent(RoutePlanDelta delta) {
+        return sse.newEventBuilder()
+                .name(EVENT_NAME)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(RoutePlanDelta.class, delta)
+                .build();
+    }
+}
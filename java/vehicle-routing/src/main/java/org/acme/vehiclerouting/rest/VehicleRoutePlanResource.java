@@ -1,10 +1,15 @@
 package org.acme.vehiclerouting.rest;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
@@ -16,8 +21,11 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
 import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
 import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
@@ -31,8 +39,12 @@ import org.acme.vehiclerouting.domain.Vehicle;
 import org.acme.vehiclerouting.domain.VehicleRoutePlan;
 import org.acme.vehiclerouting.domain.Visit;
 import org.acme.vehiclerouting.domain.dto.ApplyRecommendationRequest;
+import org.acme.vehiclerouting.domain.dto.BatchRecommendationRequest;
 import org.acme.vehiclerouting.domain.dto.RecommendationRequest;
+import org.acme.vehiclerouting.domain.dto.RoutePlanDelta;
 import org.acme.vehiclerouting.domain.dto.VehicleRecommendation;
+import org.acme.vehiclerouting.domain.dto.VisitRecommendation;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeCalculator;
 import org.acme.vehiclerouting.rest.exception.ErrorInfo;
 import org.acme.vehiclerouting.rest.exception.VehicleRoutingSolverException;
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -46,6 +58,10 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Tag(name = "Vehicle Routing with Capacity and Time Windows",
         description = "Vehicle Routing optimizes routes of vehicles with given capacities to visits available in specified time windows.")
 @Path("route-plans")
@@ -58,20 +74,39 @@ public class VehicleRoutePlanResource {
 
     private final SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager;
 
-    // TODO: Without any "time to live", the map may eventually grow out of memory.
-    private final ConcurrentMap<String, Job> jobIdToJob = new ConcurrentHashMap<>();
+    private final JobStore jobStore;
+    private final DrivingTimeCalculator drivingTimeCalculator;
+    private final ConcurrentMap<String, RoutePlanEventStream> jobIdToEventStream = new ConcurrentHashMap<>();
+
+    private final Counter scoreExplanationCacheHitCounter;
+    private final Counter scoreExplanationCacheMissCounter;
 
     // Workaround to make Quarkus CDI happy. Do not use.
     public VehicleRoutePlanResource() {
         this.solverManager = null;
         this.solutionManager = null;
+        this.jobStore = null;
+        this.drivingTimeCalculator = null;
+        this.scoreExplanationCacheHitCounter = null;
+        this.scoreExplanationCacheMissCounter = null;
     }
 
     @Inject
     public VehicleRoutePlanResource(SolverManager<VehicleRoutePlan, String> solverManager,
-                                    SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager) {
+                                    SolutionManager<VehicleRoutePlan, HardSoftLongScore> solutionManager,
+                                    JobStore jobStore, DrivingTimeCalculator drivingTimeCalculator,
+                                    MeterRegistry meterRegistry) {
         this.solverManager = solverManager;
         this.solutionManager = solutionManager;
+        this.jobStore = jobStore;
+        this.drivingTimeCalculator = drivingTimeCalculator;
+        this.scoreExplanationCacheHitCounter = meterRegistry.counter("vehicle-routing.score-explanation.cache",
+                "result", "hit");
+        this.scoreExplanationCacheMissCounter = meterRegistry.counter("vehicle-routing.score-explanation.cache",
+                "result", "miss");
+        Gauge.builder("vehicle-routing.score-explanation.cache.hit-ratio", this,
+                        VehicleRoutePlanResource::getScoreExplanationCacheHitRatio)
+                .register(meterRegistry);
     }
 
     @Operation(summary = "List the job IDs of all submitted route plans.")
@@ -82,32 +117,57 @@ public class VehicleRoutePlanResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Collection<String> list() {
-        return jobIdToJob.keySet();
+        return jobStore.getJobIds();
     }
 
     @Operation(summary = "Submit a route plan to start solving as soon as CPU resources are available.")
     @APIResponses(value = {
             @APIResponse(responseCode = "202",
                     description = "The job ID. Use that ID to get the solution with the other methods.",
-                    content = @Content(mediaType = MediaType.TEXT_PLAIN, schema = @Schema(implementation = String.class)))})
+                    content = @Content(mediaType = MediaType.TEXT_PLAIN, schema = @Schema(implementation = String.class))),
+            @APIResponse(responseCode = "503", description = "Too many route plans are being solved.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))})
     @POST
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces(MediaType.TEXT_PLAIN)
     public String solve(VehicleRoutePlan problem) {
         String jobId = UUID.randomUUID().toString();
-        jobIdToJob.put(jobId, Job.ofRoutePlan(problem));
+        problem.initDrivingTimeMatrix(drivingTimeCalculator);
+        if (!jobStore.add(jobId, problem)) {
+            throw new VehicleRoutingSolverException(jobId, Response.Status.SERVICE_UNAVAILABLE,
+                    "Too many route plans are being solved, try again later.");
+        }
         solverManager.solveBuilder()
                 .withProblemId(jobId)
-                .withProblemFinder(jobId_ -> jobIdToJob.get(jobId).routePlan)
-                .withBestSolutionConsumer(solution -> jobIdToJob.put(jobId, Job.ofRoutePlan(solution)))
+                .withProblemFinder(jobId_ -> jobStore.get(jobId).routePlan())
+                .withBestSolutionConsumer(solution -> {
+                    jobStore.putRoutePlan(jobId, solution);
+                    RoutePlanEventStream eventStream = jobIdToEventStream.get(jobId);
+                    if (eventStream != null) {
+                        eventStream.publish(solution);
+                    }
+                })
+                .withFinalBestSolutionConsumer(solution -> {
+                    jobStore.finish(jobId, solution);
+                    completeEventStream(jobId, solution);
+                })
                 .withExceptionHandler((jobId_, exception) -> {
-                    jobIdToJob.put(jobId, Job.ofException(exception));
+                    jobStore.fail(jobId, exception);
+                    completeEventStream(jobId, null);
                     LOGGER.error("Failed solving jobId ({}).", jobId, exception);
                 })
                 .run();
         return jobId;
     }
 
+    private void completeEventStream(String jobId, VehicleRoutePlan finalSolution) {
+        RoutePlanEventStream eventStream = jobIdToEventStream.remove(jobId);
+        if (eventStream != null) {
+            eventStream.complete(finalSolution);
+        }
+    }
+
     @Operation(summary = "Request recommendations to the RecommendedFit API for a new visit.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200",
@@ -119,15 +179,67 @@ public class VehicleRoutePlanResource {
     @Produces(MediaType.APPLICATION_JSON)
     @Path("recommendation")
     public List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>> recommendedFit(RecommendationRequest request) {
+        request.solution().initDrivingTimeMatrix(drivingTimeCalculator);
         Visit visit = request.solution().getVisits().stream()
                 .filter(v -> v.getId().equals(request.visitId()))
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException("Visit %s not found".formatted(request.visitId())));
+        return recommendFit(request.solution(), visit, MAX_RECOMMENDED_FIT_LIST_SIZE);
+    }
+
+    @Operation(summary = "Request recommendations to the RecommendedFit API for many new visits at once.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200",
+                    description = "The list of fits for each of the given visits, in the same order as the visit IDs.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(type = SchemaType.ARRAY, implementation = VisitRecommendation.class))),
+            @APIResponse(responseCode = "400", description = "The limit is not positive.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))})
+    @POST
+    @Consumes({MediaType.APPLICATION_JSON})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("recommendation/batch")
+    public List<VisitRecommendation> recommendedFitBatch(BatchRecommendationRequest request,
+            @Parameter(description = "The maximum number of fits per visit.") @QueryParam("limit") Integer limit) {
+        int fitLimit = limit == null ? MAX_RECOMMENDED_FIT_LIST_SIZE : limit;
+        if (fitLimit < 1) {
+            throw new VehicleRoutingSolverException(null, Response.Status.BAD_REQUEST,
+                    "The limit (%d) must be greater than zero.".formatted(fitLimit));
+        }
+        VehicleRoutePlan solution = request.solution();
+        solution.initDrivingTimeMatrix(drivingTimeCalculator);
+        Map<String, Visit> visitIdToVisit = solution.getVisits().stream()
+                .collect(Collectors.toMap(Visit::getId, Function.identity()));
+        Set<String> newVisitIds = Set.copyOf(request.visitIds());
+        for (String visitId : newVisitIds) {
+            if (!visitIdToVisit.containsKey(visitId)) {
+                throw new IllegalStateException("Visit %s not found".formatted(visitId));
+            }
+        }
+        // The RecommendedFit API accepts a single unassigned visit,
+        // so each new visit is evaluated on a copy of the solution without the other new visits.
+        List<Visit> otherVisits = solution.getVisits().stream()
+                .filter(visit -> !newVisitIds.contains(visit.getId()))
+                .toList();
+        return request.visitIds().parallelStream()
+                .map(visitId -> {
+                    Visit visit = visitIdToVisit.get(visitId);
+                    List<Visit> visits = new ArrayList<>(otherVisits.size() + 1);
+                    visits.addAll(otherVisits);
+                    visits.add(visit);
+                    return new VisitRecommendation(visitId, recommendFit(solution.withVisits(visits), visit, fitLimit));
+                })
+                .toList();
+    }
+
+    private List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>> recommendFit(VehicleRoutePlan solution,
+            Visit visit, int limit) {
         List<RecommendedFit<VehicleRecommendation, HardSoftLongScore>> recommendedFitList = solutionManager
-                .recommendFit(request.solution(), visit, v -> new VehicleRecommendation(v.getVehicle().getId(),
+                .recommendFit(solution, visit, v -> new VehicleRecommendation(v.getVehicle().getId(),
                         v.getVehicle().getVisits().indexOf(v)));
         if (!recommendedFitList.isEmpty()) {
-            return recommendedFitList.subList(0, Math.min(MAX_RECOMMENDED_FIT_LIST_SIZE, recommendedFitList.size()));
+            return recommendedFitList.subList(0, Math.min(limit, recommendedFitList.size()));
         }
         return recommendedFitList;
     }
@@ -144,6 +256,7 @@ public class VehicleRoutePlanResource {
     @Path("recommendation/apply")
     public VehicleRoutePlan applyRecommendedFit(ApplyRecommendationRequest request) {
         VehicleRoutePlan updatedSolution = request.solution();
+        updatedSolution.initDrivingTimeMatrix(drivingTimeCalculator);
         String vehicleId = request.vehicleId();
         Vehicle vehicleTarget = updatedSolution.getVehicles().stream()
                 .filter(v -> v.getId().equals(vehicleId))
@@ -176,14 +289,61 @@ public class VehicleRoutePlanResource {
     @Path("{jobId}")
     public VehicleRoutePlan getRoutePlan(
             @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
-        VehicleRoutePlan routePlan = getRoutePlanAndCheckForExceptions(jobId);
+        JobStore.Job job = getJobAndCheckForExceptions(jobId);
+        VehicleRoutePlan routePlan = job.routePlan();
         SolverStatus solverStatus = solverManager.getSolverStatus(jobId);
-        String scoreExplanation = solutionManager.explain(routePlan).getSummary();
         routePlan.setSolverStatus(solverStatus);
+        // The explanation is kept with the job until its next best solution, even when it is spilled to disk.
+        String scoreExplanation = job.scoreExplanation();
+        if (scoreExplanation == null) {
+            scoreExplanationCacheMissCounter.increment();
+            scoreExplanation = solutionManager.explain(routePlan).getSummary();
+            jobStore.putScoreExplanation(jobId, job, scoreExplanation);
+        } else {
+            scoreExplanationCacheHitCounter.increment();
+        }
         routePlan.setScoreExplanation(scoreExplanation);
         return routePlan;
     }
 
+    private double getScoreExplanationCacheHitRatio() {
+        double hitCount = scoreExplanationCacheHitCounter.count();
+        double requestCount = hitCount + scoreExplanationCacheMissCounter.count();
+        return requestCount == 0.0 ? 0.0 : hitCount / requestCount;
+    }
+
+    @Operation(
+            summary = "Stream the best solutions of a given job ID as server-sent events. The first event contains all vehicles, the following ones only the vehicles whose visits have changed.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "The stream of the best solution deltas.",
+                    content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS,
+                            schema = @Schema(implementation = RoutePlanDelta.class))),
+            @APIResponse(responseCode = "404", description = "No route plan found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a route plan.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Path("{jobId}/events")
+    public void streamRoutePlan(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Context SseEventSink sink, @Context Sse sse) {
+        VehicleRoutePlan routePlan = getRoutePlanAndCheckForExceptions(jobId);
+        if (solverManager.getSolverStatus(jobId) == SolverStatus.NOT_SOLVING) {
+            RoutePlanEventStream.sendFinalSolution(sse, sink, routePlan);
+            return;
+        }
+        jobIdToEventStream.computeIfAbsent(jobId, jobId_ -> new RoutePlanEventStream(sse, routePlan))
+                .subscribe(sink);
+        // The job may have finished in the meantime, without completing the stream created above.
+        if (solverManager.getSolverStatus(jobId) == SolverStatus.NOT_SOLVING) {
+            completeEventStream(jobId, getRoutePlanAndCheckForExceptions(jobId));
+        }
+    }
+
     @Operation(
             summary = "Get the route plan status and score for a given job ID.")
     @APIResponses(value = {
@@ -208,14 +368,18 @@ public class VehicleRoutePlanResource {
     }
 
     private VehicleRoutePlan getRoutePlanAndCheckForExceptions(String jobId) {
-        Job job = jobIdToJob.get(jobId);
+        return getJobAndCheckForExceptions(jobId).routePlan();
+    }
+
+    private JobStore.Job getJobAndCheckForExceptions(String jobId) {
+        JobStore.Job job = jobStore.get(jobId);
         if (job == null) {
             throw new VehicleRoutingSolverException(jobId, Response.Status.NOT_FOUND, "No route plan found.");
         }
-        if (job.exception != null) {
-            throw new VehicleRoutingSolverException(jobId, job.exception);
+        if (job.exception() != null) {
+            throw new VehicleRoutingSolverException(jobId, job.exception());
         }
-        return job.routePlan;
+        return job;
     }
 
     @Operation(
@@ -238,6 +402,10 @@ public class VehicleRoutePlanResource {
             @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
         // TODO: Replace with .terminateEarlyAndWait(... [, timeout]); see https://github.com/TimefoldAI/timefold-solver/issues/77
         solverManager.terminateEarly(jobId);
+        // A job cancelled before it started solving never calls its final best solution consumer.
+        if (solverManager.getSolverStatus(jobId) == SolverStatus.NOT_SOLVING && jobStore.finishIfRunning(jobId)) {
+            completeEventStream(jobId, getRoutePlanAndCheckForExceptions(jobId));
+        }
         return getRoutePlan(jobId);
     }
 
@@ -253,18 +421,7 @@ public class VehicleRoutePlanResource {
     @Path("analyze")
     public ScoreAnalysis<HardSoftLongScore> analyze(VehicleRoutePlan problem,
                                                     @QueryParam("fetchPolicy") ScoreAnalysisFetchPolicy fetchPolicy) {
+        problem.initDrivingTimeMatrix(drivingTimeCalculator);
         return fetchPolicy == null ? solutionManager.analyze(problem) : solutionManager.analyze(problem, fetchPolicy);
     }
-
-    private record Job(VehicleRoutePlan routePlan, Throwable exception) {
-
-        static Job ofRoutePlan(VehicleRoutePlan routePlan) {
-            return new Job(routePlan, null);
-        }
-
-        static Job ofException(Throwable exception) {
-            return new Job(null, exception);
-        }
-
-    }
 }
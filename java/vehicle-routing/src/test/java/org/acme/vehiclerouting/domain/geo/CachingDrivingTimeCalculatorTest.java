@@ -0,0 +1,94 @@
+package org.acme.vehiclerouting.domain.geo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.acme.vehiclerouting.domain.Location;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CachingDrivingTimeCalculatorTest {
+
+    private final CountingDrivingTimeCalculator delegate = new CountingDrivingTimeCalculator();
+
+    @Test
+    void reuseMatrixInMemory() {
+        DrivingTimeCalculator drivingTimeCalculator = new CachingDrivingTimeCalculator(delegate, 1024 * 1024, null, 0L);
+
+        DrivingTimeMatrix firstMatrix = drivingTimeCalculator.calculateBulkDrivingTime(createLocations());
+        DrivingTimeMatrix secondMatrix = drivingTimeCalculator.calculateBulkDrivingTime(createLocations());
+
+        Assertions.assertThat(delegate.bulkCalculationCount.get()).isEqualTo(1);
+        Assertions.assertThat(secondMatrix).isSameAs(firstMatrix);
+    }
+
+    @Test
+    void evictLeastRecentlyUsedMatrix() {
+        // Room for a single 3x3 matrix only.
+        DrivingTimeCalculator drivingTimeCalculator = new CachingDrivingTimeCalculator(delegate, 9 * Integer.BYTES, null, 0L);
+
+        drivingTimeCalculator.calculateBulkDrivingTime(createLocations());
+        drivingTimeCalculator.calculateBulkDrivingTime(List.of(new Location(1.0, 1.0), new Location(2.0, 2.0),
+                new Location(3.0, 3.0)));
+        drivingTimeCalculator.calculateBulkDrivingTime(createLocations());
+
+        Assertions.assertThat(delegate.bulkCalculationCount.get()).isEqualTo(3);
+    }
+
+    @Test
+    void reuseMatrixOnDisk(@TempDir Path cacheDirectory) {
+        DrivingTimeMatrix calculatedMatrix = new CachingDrivingTimeCalculator(delegate, 0L, cacheDirectory, 1024 * 1024)
+                .calculateBulkDrivingTime(createLocations());
+        // A new instance simulates a restart with an empty in-memory tier.
+        DrivingTimeMatrix readMatrix = new CachingDrivingTimeCalculator(delegate, 0L, cacheDirectory, 1024 * 1024)
+                .calculateBulkDrivingTime(createLocations());
+
+        Assertions.assertThat(delegate.bulkCalculationCount.get()).isEqualTo(1);
+        Assertions.assertThat(readMatrix.getSize()).isEqualTo(calculatedMatrix.getSize());
+        Assertions.assertThat(readMatrix.getDrivingTimeSecondsArray())
+                .containsExactly(calculatedMatrix.getDrivingTimeSecondsArray());
+    }
+
+    @Test
+    void evictLeastRecentlyUsedFileOnDisk(@TempDir Path cacheDirectory) throws IOException {
+        // Room for a single 3x3 matrix file only.
+        DrivingTimeCalculator drivingTimeCalculator =
+                new CachingDrivingTimeCalculator(delegate, 0L, cacheDirectory, Integer.BYTES + 9 * Integer.BYTES);
+
+        drivingTimeCalculator.calculateBulkDrivingTime(createLocations());
+        drivingTimeCalculator.calculateBulkDrivingTime(List.of(new Location(1.0, 1.0), new Location(2.0, 2.0),
+                new Location(3.0, 3.0)));
+        drivingTimeCalculator.calculateBulkDrivingTime(createLocations());
+
+        Assertions.assertThat(delegate.bulkCalculationCount.get()).isEqualTo(3);
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            Assertions.assertThat(files).hasSize(1);
+        }
+    }
+
+    private static List<Location> createLocations() {
+        return List.of(new Location(51.0441461, 3.7336349), new Location(49.1913945, 16.6122723),
+                new Location(65.5887708, 22.1518707));
+    }
+
+    private static class CountingDrivingTimeCalculator implements DrivingTimeCalculator {
+
+        private final AtomicInteger bulkCalculationCount = new AtomicInteger();
+
+        @Override
+        public long calculateDrivingTime(Location from, Location to) {
+            return HaversineDrivingTimeCalculator.getInstance().calculateDrivingTime(from, to);
+        }
+
+        @Override
+        public DrivingTimeMatrix calculateBulkDrivingTime(List<Location> locations) {
+            bulkCalculationCount.incrementAndGet();
+            return DrivingTimeCalculator.super.calculateBulkDrivingTime(locations);
+        }
+    }
+}
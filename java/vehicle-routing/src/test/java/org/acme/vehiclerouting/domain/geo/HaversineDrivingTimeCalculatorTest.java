@@ -1,5 +1,9 @@
 package org.acme.vehiclerouting.domain.geo;
 
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
 import org.acme.vehiclerouting.domain.Location;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -22,4 +26,36 @@ class HaversineDrivingTimeCalculatorTest {
         Assertions.assertThat(drivingTimeCalculator.calculateDrivingTime(Svolvaer, Lulea))
                 .isEqualTo(HaversineDrivingTimeCalculator.metersToDrivingSeconds(442297));
     }
-}
\ No newline at end of file
+
+    @Test
+    void initDrivingTimeMatrix() {
+        Location Gent = new Location(51.0441461, 3.7336349);
+        Location Brno = new Location(49.1913945, 16.6122723);
+        Location Lulea = new Location(65.5887708, 22.1518707);
+        DrivingTimeMatrix drivingTimeMatrix = drivingTimeCalculator.initDrivingTimeMatrix(List.of(Gent, Brno, Lulea, Gent));
+
+        Assertions.assertThat(drivingTimeMatrix.getSize()).isEqualTo(3);
+        Assertions.assertThat(Gent.getDrivingTimeTo(Gent)).isZero();
+        Assertions.assertThat(Gent.getDrivingTimeTo(Brno))
+                .isEqualTo(drivingTimeCalculator.calculateDrivingTime(Gent, Brno));
+        Assertions.assertThat(Lulea.getDrivingTimeTo(Brno))
+                .isEqualTo(drivingTimeCalculator.calculateDrivingTime(Lulea, Brno));
+    }
+
+    @Test
+    void calculateBulkDrivingTime() {
+        Random random = new Random(0);
+        // More locations than a single tile of the bulk computation.
+        List<Location> locations = Stream.generate(() -> new Location(49.0 + random.nextDouble(), 16.0 + random.nextDouble()))
+                .limit(150)
+                .toList();
+        DrivingTimeMatrix drivingTimeMatrix = drivingTimeCalculator.calculateBulkDrivingTime(locations);
+
+        for (int i = 0; i < locations.size(); i++) {
+            for (int j = 0; j < locations.size(); j++) {
+                Assertions.assertThat(drivingTimeMatrix.getDrivingTime(i, j))
+                        .isEqualTo(drivingTimeCalculator.calculateDrivingTime(locations.get(i), locations.get(j)));
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.acme.vehiclerouting.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.geo.DrivingTimeCalculator;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JobStoreTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final DrivingTimeCalculator DRIVING_TIME_CALCULATOR = HaversineDrivingTimeCalculator.getInstance();
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void evictFinishedJobAfterTimeToLive() {
+        JobStore jobStore = new JobStore(10, Duration.ofMinutes(10), JobStore.FinishedJobPolicy.KEEP_IN_MEMORY, null,
+                OBJECT_MAPPER, DRIVING_TIME_CALCULATOR, clock);
+        jobStore.add("running", createRoutePlan());
+        jobStore.add("finished", createRoutePlan());
+        jobStore.finish("finished", createRoutePlan());
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(jobStore.get("finished")).isNull();
+        assertThat(jobStore.get("running")).isNotNull();
+        assertThat(jobStore.getJobIds()).containsExactly("running");
+    }
+
+    @Test
+    void evictOldestFinishedJobAboveMaxSize() {
+        JobStore jobStore = new JobStore(2, Duration.ofHours(1), JobStore.FinishedJobPolicy.KEEP_IN_MEMORY, null,
+                OBJECT_MAPPER, DRIVING_TIME_CALCULATOR, clock);
+        jobStore.add("first", createRoutePlan());
+        jobStore.finish("first", createRoutePlan());
+        clock.advance(Duration.ofSeconds(1));
+        jobStore.add("second", createRoutePlan());
+        jobStore.finish("second", createRoutePlan());
+        clock.advance(Duration.ofSeconds(1));
+        jobStore.add("third", createRoutePlan());
+
+        assertThat(jobStore.getJobIds()).containsExactlyInAnyOrder("second", "third");
+    }
+
+    @Test
+    void rejectNewJobWhenAllJobsAreRunning() {
+        JobStore jobStore = new JobStore(2, Duration.ofHours(1), JobStore.FinishedJobPolicy.KEEP_IN_MEMORY, null,
+                OBJECT_MAPPER, DRIVING_TIME_CALCULATOR, clock);
+        assertThat(jobStore.add("first", createRoutePlan())).isTrue();
+        assertThat(jobStore.add("second", createRoutePlan())).isTrue();
+
+        assertThat(jobStore.add("third", createRoutePlan())).isFalse();
+        assertThat(jobStore.getJobIds()).containsExactlyInAnyOrder("first", "second");
+
+        jobStore.finish("first", createRoutePlan());
+
+        assertThat(jobStore.add("third", createRoutePlan())).isTrue();
+        assertThat(jobStore.getJobIds()).containsExactlyInAnyOrder("second", "third");
+    }
+
+    @Test
+    void finishCancelledJobWithoutFinalBestSolution() {
+        JobStore jobStore = new JobStore(1, Duration.ofMinutes(10), JobStore.FinishedJobPolicy.KEEP_IN_MEMORY, null,
+                OBJECT_MAPPER, DRIVING_TIME_CALCULATOR, clock);
+        VehicleRoutePlan problem = createRoutePlan();
+        jobStore.add("cancelled", problem);
+        assertThat(jobStore.add("new", createRoutePlan())).isFalse();
+
+        assertThat(jobStore.finishIfRunning("cancelled")).isTrue();
+        assertThat(jobStore.get("cancelled").routePlan()).isSameAs(problem);
+        assertThat(jobStore.finishIfRunning("cancelled")).isFalse();
+        // The cancelled job no longer blocks new jobs.
+        assertThat(jobStore.add("new", createRoutePlan())).isTrue();
+        assertThat(jobStore.getJobIds()).containsExactly("new");
+    }
+
+    @Test
+    void keepFinalBestSolutionOfFinishedJob() {
+        JobStore jobStore = new JobStore(10, Duration.ofMinutes(10), JobStore.FinishedJobPolicy.KEEP_IN_MEMORY, null,
+                OBJECT_MAPPER, DRIVING_TIME_CALCULATOR, clock);
+        jobStore.add("finished", createRoutePlan());
+        VehicleRoutePlan finalBestSolution = createRoutePlan();
+        jobStore.finish("finished", finalBestSolution);
+
+        assertThat(jobStore.finishIfRunning("finished")).isFalse();
+        assertThat(jobStore.finishIfRunning("unknown")).isFalse();
+        assertThat(jobStore.get("finished").routePlan()).isSameAs(finalBestSolution);
+    }
+
+    @Test
+    void keepScoreExplanationUntilNextBestSolution() {
+        JobStore jobStore = new JobStore(10, Duration.ofHours(1), JobStore.FinishedJobPolicy.KEEP_IN_MEMORY, null,
+                OBJECT_MAPPER, DRIVING_TIME_CALCULATOR, clock);
+        jobStore.add("running", createRoutePlan());
+        JobStore.Job job = jobStore.get("running");
+        assertThat(job.scoreExplanation()).isNull();
+
+        jobStore.putScoreExplanation("running", job, "explanation");
+        assertThat(jobStore.get("running").scoreExplanation()).isEqualTo("explanation");
+
+        jobStore.putRoutePlan("running", createRoutePlan());
+        assertThat(jobStore.get("running").scoreExplanation()).isNull();
+        // An explanation of the previous best solution is ignored.
+        jobStore.putScoreExplanation("running", job, "explanation");
+        assertThat(jobStore.get("running").scoreExplanation()).isNull();
+    }
+
+    @Test
+    void spillFinishedJobToDisk(@TempDir Path spillDirectory) {
+        JobStore jobStore = new JobStore(10, Duration.ofMinutes(10), JobStore.FinishedJobPolicy.SPILL_TO_DISK,
+                spillDirectory, OBJECT_MAPPER, DRIVING_TIME_CALCULATOR, clock);
+        jobStore.add("finished", createRoutePlan());
+        jobStore.finish("finished", createRoutePlan());
+
+        assertThat(spillDirectory.resolve("finished.json.gz")).exists();
+        JobStore.Job job = jobStore.get("finished");
+        assertThat(job.exception()).isNull();
+        assertThat(job.routePlan().getName()).isEqualTo("demo");
+        assertThat(job.routePlan().getDrivingTimeMatrix()).isNotNull();
+        // Polling the same finished job again does not deserialize it again.
+        assertThat(jobStore.get("finished").routePlan()).isSameAs(job.routePlan());
+        jobStore.putScoreExplanation("finished", job, "explanation");
+        assertThat(jobStore.get("finished").scoreExplanation()).isEqualTo("explanation");
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(jobStore.get("finished")).isNull();
+        assertThat(spillDirectory.resolve("finished.json.gz")).doesNotExist();
+    }
+
+    private static VehicleRoutePlan createRoutePlan() {
+        return new VehicleRouteDemoResource().build(VehicleRouteDemoResource.DemoData.HARTFORT);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
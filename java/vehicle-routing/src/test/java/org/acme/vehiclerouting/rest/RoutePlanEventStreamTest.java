@@ -0,0 +1,161 @@
+package org.acme.vehiclerouting.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+
+import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.dto.RoutePlanDelta;
+import org.acme.vehiclerouting.domain.dto.VehicleRouteDelta;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
+import org.jboss.resteasy.plugins.providers.sse.SseImpl;
+import org.junit.jupiter.api.Test;
+
+class RoutePlanEventStreamTest {
+
+    private static final Sse SSE = new SseImpl();
+
+    @Test
+    void subscribeToSnapshotOfPublishedSolution() {
+        RoutePlanEventStream eventStream = new RoutePlanEventStream(SSE, createRoutePlan(0));
+        RecordingSink sink = new RecordingSink();
+        eventStream.subscribe(sink);
+        eventStream.publish(createRoutePlan(1));
+        sink.completeSend(1);
+
+        RecordingSink lateSink = new RecordingSink();
+        eventStream.subscribe(lateSink);
+
+        RoutePlanDelta snapshot = sink.deltas.get(0);
+        assertThat(snapshot.vehicles()).hasSize(createRoutePlan(0).getVehicles().size());
+        RoutePlanDelta delta = sink.deltas.get(1);
+        assertThat(delta.score()).isEqualTo(HardSoftLongScore.ofSoft(-1));
+        assertThat(delta.vehicles()).extracting(VehicleRouteDelta::vehicleId).containsExactly("1");
+        assertThat(delta.vehicles().get(0).visitIds()).containsExactly("1");
+        RoutePlanDelta lateSnapshot = lateSink.deltas.get(0);
+        assertThat(lateSnapshot.score()).isEqualTo(HardSoftLongScore.ofSoft(-1));
+        assertThat(lateSnapshot.vehicles()).hasSameSizeAs(snapshot.vehicles()).contains(delta.vehicles().get(0));
+    }
+
+    @Test
+    void coalesceSolutionsPublishedWhileSending() {
+        RoutePlanEventStream eventStream = new RoutePlanEventStream(SSE, createRoutePlan(0));
+        RecordingSink sink = new RecordingSink();
+        eventStream.subscribe(sink);
+
+        eventStream.publish(createRoutePlan(1));
+        eventStream.publish(createRoutePlan(2));
+        eventStream.publish(createRoutePlan(3));
+        assertThat(sink.deltas).hasSize(2);
+
+        // Only the latest solution is sent once the previous event is sent.
+        sink.completeSend(1);
+        assertThat(sink.deltas).hasSize(3);
+        assertThat(sink.deltas.get(2).score()).isEqualTo(HardSoftLongScore.ofSoft(-3));
+        assertThat(sink.deltas.get(2).vehicles().get(0).visitIds()).containsExactly("1", "2", "3");
+
+        sink.completeSend(2);
+        assertThat(sink.deltas).hasSize(3);
+        // Nothing is pending anymore, so the next solution is sent right away.
+        eventStream.publish(createRoutePlan(3));
+        assertThat(sink.deltas).hasSize(4);
+        assertThat(sink.deltas.get(3).vehicles()).isEmpty();
+        assertThat(sink.isClosed()).isFalse();
+    }
+
+    @Test
+    void completeAfterSendingFinalSolution() {
+        RoutePlanEventStream eventStream = new RoutePlanEventStream(SSE, createRoutePlan(0));
+        RecordingSink sink = new RecordingSink();
+        eventStream.subscribe(sink);
+
+        eventStream.publish(createRoutePlan(1));
+        eventStream.complete(createRoutePlan(2));
+        assertThat(sink.deltas).hasSize(2);
+        assertThat(sink.isClosed()).isFalse();
+
+        sink.completeSend(1);
+        assertThat(sink.deltas).hasSize(3);
+        assertThat(sink.deltas.get(2).score()).isEqualTo(HardSoftLongScore.ofSoft(-2));
+        assertThat(sink.isClosed()).isFalse();
+
+        sink.completeSend(2);
+        assertThat(sink.isClosed()).isTrue();
+    }
+
+    @Test
+    void completeWithoutFinalSolution() {
+        RoutePlanEventStream eventStream = new RoutePlanEventStream(SSE, createRoutePlan(0));
+        RecordingSink sink = new RecordingSink();
+        eventStream.subscribe(sink);
+
+        eventStream.complete(null);
+        assertThat(sink.deltas).hasSize(1);
+        assertThat(sink.isClosed()).isTrue();
+    }
+
+    @Test
+    void sendFinalSolutionAndClose() {
+        RecordingSink sink = new RecordingSink();
+        RoutePlanEventStream.sendFinalSolution(SSE, sink, createRoutePlan(2));
+        assertThat(sink.deltas).hasSize(1);
+        assertThat(sink.deltas.get(0).score()).isEqualTo(HardSoftLongScore.ofSoft(-2));
+        assertThat(sink.isClosed()).isFalse();
+
+        sink.completeSend(0);
+        assertThat(sink.isClosed()).isTrue();
+    }
+
+    /**
+     * Assigns the first visits to the first vehicle.
+     */
+    private static VehicleRoutePlan createRoutePlan(int assignedVisitCount) {
+        VehicleRoutePlan routePlan = new VehicleRouteDemoResource().build(VehicleRouteDemoResource.DemoData.HARTFORT);
+        routePlan.initDrivingTimeMatrix(HaversineDrivingTimeCalculator.getInstance());
+        routePlan.getVehicles().get(0).setVisits(new ArrayList<>(routePlan.getVisits().subList(0, assignedVisitCount)));
+        routePlan.setScore(HardSoftLongScore.ofSoft(-assignedVisitCount));
+        return routePlan;
+    }
+
+    /**
+     * Records the data of every event, and only finishes sending an event when the test says so.
+     */
+    private static class RecordingSink implements SseEventSink {
+
+        private final List<RoutePlanDelta> deltas = new ArrayList<>();
+        private final List<CompletableFuture<Void>> sends = new ArrayList<>();
+        private boolean closed = false;
+
+        void completeSend(int index) {
+            sends.get(index).complete(null);
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            assertThat(event.getName()).isEqualTo(RoutePlanEventStream.EVENT_NAME);
+            deltas.add((RoutePlanDelta) event.getData());
+            CompletableFuture<Void> send = new CompletableFuture<>();
+            sends.add(send);
+            return send;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
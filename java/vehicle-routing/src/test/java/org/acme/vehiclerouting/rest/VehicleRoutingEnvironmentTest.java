@@ -13,6 +13,7 @@ import ai.timefold.solver.core.config.solver.EnvironmentMode;
 import ai.timefold.solver.core.config.solver.SolverConfig;
 
 import org.acme.vehiclerouting.domain.VehicleRoutePlan;
+import org.acme.vehiclerouting.domain.geo.HaversineDrivingTimeCalculator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
@@ -43,6 +44,7 @@ class VehicleRoutingEnvironmentTest {
                 .statusCode(200)
                 .extract()
                 .as(VehicleRoutePlan.class);
+        problem.initDrivingTimeMatrix(HaversineDrivingTimeCalculator.getInstance());
 
         // Update the environment
         SolverConfig updatedConfig = solverConfig.copyConfig();
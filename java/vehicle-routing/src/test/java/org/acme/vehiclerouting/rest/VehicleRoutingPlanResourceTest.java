@@ -24,6 +24,7 @@ import org.acme.vehiclerouting.domain.Location;
 import org.acme.vehiclerouting.domain.VehicleRoutePlan;
 import org.acme.vehiclerouting.domain.Visit;
 import org.acme.vehiclerouting.domain.dto.ApplyRecommendationRequest;
+import org.acme.vehiclerouting.domain.dto.BatchRecommendationRequest;
 import org.acme.vehiclerouting.domain.dto.RecommendationRequest;
 import org.acme.vehiclerouting.domain.dto.VehicleRecommendation;
 import org.apache.commons.lang3.tuple.Pair;
@@ -31,6 +32,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkus.test.junit.QuarkusTest;
@@ -199,6 +201,106 @@ class VehicleRoutingPlanResourceTest {
         assertNotEquals(updatedSolution.getScore().toString(), solution.getScore().toString());
     }
 
+    @Test
+    void recommendedFitBatch() {
+        VehicleRoutePlan solution = generateInitialSolution();
+        assertNotNull(solution);
+
+        Visit firstNewVisit = generateNewVisit(solution);
+        Visit secondNewVisit = generateNewVisit(solution);
+        BatchRecommendationRequest request = new BatchRecommendationRequest(solution,
+                List.of(firstNewVisit.getId(), secondNewVisit.getId()));
+
+        List<Map<String, Object>> visitRecommendationList = given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .queryParam("limit", 3)
+                .expect().contentType(ContentType.JSON)
+                .when()
+                .post("/route-plans/recommendation/batch")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(List.class);
+        assertEquals(2, visitRecommendationList.size());
+        assertEquals(firstNewVisit.getId(), visitRecommendationList.get(0).get("visitId"));
+        assertEquals(secondNewVisit.getId(), visitRecommendationList.get(1).get("visitId"));
+        for (Map<String, Object> visitRecommendation : visitRecommendationList) {
+            assertEquals(3, ((List<?>) visitRecommendation.get("fits")).size());
+        }
+    }
+
+    @Test
+    void recommendedFitBatchWithNonPositiveLimit() {
+        VehicleRoutePlan solution = given()
+                .when().get("/demo-data/FIRENZE")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(VehicleRoutePlan.class);
+        BatchRecommendationRequest request = new BatchRecommendationRequest(solution,
+                List.of(solution.getVisits().get(0).getId()));
+
+        for (int limit : new int[] { 0, -1 }) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(request)
+                    .queryParam("limit", limit)
+                    .when()
+                    .post("/route-plans/recommendation/batch")
+                    .then()
+                    .statusCode(400);
+        }
+    }
+
+    @Test
+    void streamRoutePlanUntilFeasible() throws JsonProcessingException {
+        VehicleRoutePlan vehicleRoutePlan = given()
+                .when().get("/demo-data/FIRENZE")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(VehicleRoutePlan.class);
+
+        String jobId = given()
+                .contentType(ContentType.JSON)
+                .body(vehicleRoutePlan)
+                .expect().contentType(ContentType.TEXT)
+                .when().post("/route-plans")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        // The stream is closed once the job is finished.
+        String events = given()
+                .accept("text/event-stream")
+                .when().get("/route-plans/" + jobId + "/events")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+        assertTrue(events.contains(RoutePlanEventStream.EVENT_NAME));
+        List<String> eventData = events.lines()
+                .filter(line -> line.startsWith("data:"))
+                .map(line -> line.substring("data:".length()).trim())
+                .toList();
+        assertFalse(eventData.isEmpty());
+        // The first event contains all vehicles, the last one the final best solution.
+        JsonNode firstEvent = OBJECT_MAPPER.readTree(eventData.get(0));
+        assertEquals(vehicleRoutePlan.getVehicles().size(), firstEvent.get("vehicles").size());
+        JsonNode lastEvent = OBJECT_MAPPER.readTree(eventData.get(eventData.size() - 1));
+        assertTrue(lastEvent.get("score").asText().startsWith("0hard"));
+        assertEquals(SolverStatus.NOT_SOLVING.name(),
+                get("/route-plans/" + jobId + "/status").jsonPath().get("solverStatus"));
+
+        given()
+                .accept("text/event-stream")
+                .when().get("/route-plans/unknown/events")
+                .then()
+                .statusCode(404);
+    }
+
     private VehicleRoutePlan solveDemoData() {
         VehicleRoutePlan vehicleRoutePlan = given()
                 .when().get("/demo-data/FIRENZE")
@@ -37,8 +37,8 @@ class VehicleRoutingConstraintProviderTest {
     ConstraintVerifier<VehicleRoutingConstraintProvider, VehicleRoutePlan> constraintVerifier;
 
     @BeforeAll
-    static void initDrivingTimeMaps() {
-        HaversineDrivingTimeCalculator.getInstance().initDrivingTimeMaps(Arrays.asList(LOCATION_1, LOCATION_2, LOCATION_3));
+    static void initDrivingTimeMatrix() {
+        HaversineDrivingTimeCalculator.getInstance().initDrivingTimeMatrix(Arrays.asList(LOCATION_1, LOCATION_2, LOCATION_3));
     }
 
     @Test
@@ -48,6 +48,7 @@ class VehicleRoutingConstraintProviderTest {
         LocalDateTime tomorrow_10_00 = LocalDateTime.of(TOMORROW, LocalTime.of(10, 0));
         Vehicle vehicleA = new Vehicle("1", 100, LOCATION_1, tomorrow_07_00);
         Visit visit1 = new Visit("2", "John", LOCATION_2, 80, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
+        // Without the shadow variables, the total demand is summed over the visits.
         vehicleA.getVisits().add(visit1);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
@@ -62,9 +63,8 @@ class VehicleRoutingConstraintProviderTest {
         LocalDateTime tomorrow_10_00 = LocalDateTime.of(TOMORROW, LocalTime.of(10, 0));
         Vehicle vehicleA = new Vehicle("1", 100, LOCATION_1, tomorrow_07_00);
         Visit visit1 = new Visit("2", "John", LOCATION_2, 80, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit1);
         Visit visit2 = new Visit("3", "Paul", LOCATION_3, 40, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit2);
+        connect(vehicleA, visit1, visit2);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::vehicleCapacity)
                 .given(vehicleA, visit1, visit2)
@@ -78,9 +78,8 @@ class VehicleRoutingConstraintProviderTest {
         LocalDateTime tomorrow_10_00 = LocalDateTime.of(TOMORROW, LocalTime.of(10, 0));
         Vehicle vehicleA = new Vehicle("1", 100, LOCATION_1, tomorrow_07_00);
         Visit visit1 = new Visit("2", "John", LOCATION_2, 80, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit1);
         Visit visit2 = new Visit("3", "Paul", LOCATION_3, 40, tomorrow_08_00, tomorrow_10_00, Duration.ofMinutes(30L));
-        vehicleA.getVisits().add(visit2);
+        connect(vehicleA, visit1, visit2);
 
         constraintVerifier.verifyThat(VehicleRoutingConstraintProvider::minimizeTravelTime)
                 .given(vehicleA, visit1, visit2)
@@ -122,7 +121,14 @@ class VehicleRoutingConstraintProviderTest {
             Visit visit = visits[i];
             visit.setVehicle(vehicle);
             if (i > 0) {
-                visit.setPreviousVisit(visits[i - 1]);
+                Visit previousVisit = visits[i - 1];
+                visit.setPreviousVisit(previousVisit);
+                visit.setCumulativeDemand(previousVisit.getCumulativeDemand() + visit.getDemand());
+                visit.setCumulativeDrivingTimeSeconds(previousVisit.getCumulativeDrivingTimeSeconds()
+                        + previousVisit.getLocation().getDrivingTimeTo(visit.getLocation()));
+            } else {
+                visit.setCumulativeDemand(visit.getDemand());
+                visit.setCumulativeDrivingTimeSeconds(vehicle.getHomeLocation().getDrivingTimeTo(visit.getLocation()));
             }
         }
     }